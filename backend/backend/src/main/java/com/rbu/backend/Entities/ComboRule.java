@@ -0,0 +1,48 @@
+package com.rbu.backend.Entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Association rule "antecedent items => consequent item", written by the nightly combo mining job
+@Entity
+@Table(name = "combo_rules", indexes = @Index(name = "idx_combo_rules_antecedent", columnList = "antecedent"))
+public class ComboRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sorted, comma-separated food item ids, e.g. "3,17"
+    @Column(nullable = false, length = 64)
+    private String antecedent;
+
+    @Column(nullable = false)
+    private Long consequent;
+
+    @Column(nullable = false)
+    private double support;
+
+    @Column(nullable = false)
+    private double confidence;
+
+    @Column(nullable = false)
+    private double lift;
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getAntecedent() { return antecedent; }
+    public void setAntecedent(String antecedent) { this.antecedent = antecedent; }
+    public Long getConsequent() { return consequent; }
+    public void setConsequent(Long consequent) { this.consequent = consequent; }
+    public double getSupport() { return support; }
+    public void setSupport(double support) { this.support = support; }
+    public double getConfidence() { return confidence; }
+    public void setConfidence(double confidence) { this.confidence = confidence; }
+    public double getLift() { return lift; }
+    public void setLift(double lift) { this.lift = lift; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
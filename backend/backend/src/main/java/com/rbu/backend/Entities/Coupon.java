@@ -20,6 +20,12 @@ public class Coupon {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Set when staff redeem the coupon at the pickup counter
+    private LocalDateTime redeemedAt;
+
+    @Column(length = 100)
+    private String redeemedBy;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -29,4 +35,8 @@ public class Coupon {
     public void setOrder(Order order) { this.order = order; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getRedeemedAt() { return redeemedAt; }
+    public void setRedeemedAt(LocalDateTime redeemedAt) { this.redeemedAt = redeemedAt; }
+    public String getRedeemedBy() { return redeemedBy; }
+    public void setRedeemedBy(String redeemedBy) { this.redeemedBy = redeemedBy; }
 }
@@ -24,7 +24,13 @@ public class FoodItem {
     @Column(nullable = false)
     private int estimatedPrepTime; // in minutes
 
-    private int totalOrders = 0; // for analytics
+    // for analytics; maintained by PopularityService, so entity saves never overwrite it
+    @Column(updatable = false)
+    private int totalOrders = 0;
+
+    // null = stock not tracked; live count is kept by StockService and written back in batches
+    @Column(updatable = false)
+    private Integer stockQuantity;
 
     // Getters and setters
     public Long getId() { return id; }
@@ -41,4 +47,6 @@ public class FoodItem {
     public void setEstimatedPrepTime(int estimatedPrepTime) { this.estimatedPrepTime = estimatedPrepTime; }
     public int getTotalOrders() { return totalOrders; }
     public void setTotalOrders(int totalOrders) { this.totalOrders = totalOrders; }
+    public Integer getStockQuantity() { return stockQuantity; }
+    public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
 }
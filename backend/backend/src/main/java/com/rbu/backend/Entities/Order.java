@@ -30,7 +30,7 @@ public class Order {
     private double totalAmount;
 
     @Column(nullable = false)
-    private String status; // PLACED, PREPARING, READY, COMPLETED, CANCELLED
+    private String status; // see OrderStatus
 
     @Column(nullable = false)
     private LocalDateTime orderTime;
@@ -41,6 +41,10 @@ public class Order {
     @Column
     private String couponCode;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -60,4 +64,5 @@ public class Order {
     public void setReadyTime(LocalDateTime readyTime) { this.readyTime = readyTime; }
     public String getCouponCode() { return couponCode; }
     public void setCouponCode(String couponCode) { this.couponCode = couponCode; }
+    public long getVersion() { return version; }
 }
@@ -0,0 +1,35 @@
+package com.rbu.backend.Entities;
+
+import java.util.List;
+
+// Order lifecycle. orders.status keeps the constant name; each state lists the states it can be entered from,
+// and OrderRepository.transition applies a move only while the row is still in one of them.
+public enum OrderStatus {
+    PLACED(),
+    PREPARING("PLACED"),
+    READY("PREPARING"),
+    COMPLETED("PREPARING", "READY"),
+    CANCELLED("PLACED", "PREPARING", "READY");
+
+    private final List<String> sources;
+
+    OrderStatus(String... sources) {
+        this.sources = List.of(sources);
+    }
+
+    public List<String> sources() {
+        return sources;
+    }
+
+    public boolean isFinal() {
+        return this == COMPLETED || this == CANCELLED;
+    }
+
+    public static OrderStatus parse(String status) {
+        try {
+            return valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown order status: " + status);
+        }
+    }
+}
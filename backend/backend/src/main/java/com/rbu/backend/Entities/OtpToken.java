@@ -28,6 +28,10 @@ public class OtpToken {
 
     private LocalDateTime verifiedAt;
 
+    // Wrong guesses against this OTP; it is discarded after OtpStore.MAX_ATTEMPTS
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -48,4 +52,7 @@ public class OtpToken {
 
     public LocalDateTime getVerifiedAt() { return verifiedAt; }
     public void setVerifiedAt(LocalDateTime verifiedAt) { this.verifiedAt = verifiedAt; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
 }
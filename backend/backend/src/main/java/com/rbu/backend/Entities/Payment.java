@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = @Index(name = "idx_payments_gateway_order_id", columnList = "gateway_order_id"))
 public class Payment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,15 +15,23 @@ public class Payment {
     private Order order;
 
     @Column(nullable = false)
-    private String paymentStatus; // PENDING, SUCCESS, FAILED
+    private String paymentStatus; // see PaymentStatus
 
     @Column(nullable = false)
     private String paymentMethod; // RAZORPAY, MOCK
 
     private String transactionId;
 
+    // Gateway-side order id (Razorpay order_...), used to match webhook events to this payment
+    @Column(name = "gateway_order_id")
+    private String gatewayOrderId;
+
     private LocalDateTime paymentTime;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -35,6 +43,9 @@ public class Payment {
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
     public String getTransactionId() { return transactionId; }
     public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+    public String getGatewayOrderId() { return gatewayOrderId; }
+    public void setGatewayOrderId(String gatewayOrderId) { this.gatewayOrderId = gatewayOrderId; }
     public LocalDateTime getPaymentTime() { return paymentTime; }
     public void setPaymentTime(LocalDateTime paymentTime) { this.paymentTime = paymentTime; }
+    public long getVersion() { return version; }
 }
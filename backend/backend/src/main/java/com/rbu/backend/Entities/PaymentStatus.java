@@ -0,0 +1,21 @@
+package com.rbu.backend.Entities;
+
+import java.util.List;
+
+// Payment lifecycle, same scheme as OrderStatus. SUCCESS is terminal; a failed attempt can be retried
+// (back to PENDING) or still be captured late by the gateway.
+public enum PaymentStatus {
+    PENDING("PENDING", "FAILED"),
+    SUCCESS("PENDING", "FAILED"),
+    FAILED("PENDING");
+
+    private final List<String> sources;
+
+    PaymentStatus(String... sources) {
+        this.sources = List.of(sources);
+    }
+
+    public List<String> sources() {
+        return sources;
+    }
+}
@@ -0,0 +1,70 @@
+package com.rbu.backend.Entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A payment that did not reconcile, written by PaymentReconciliationService
+@Entity
+@Table(name = "reconciliation_issues", indexes = @Index(name = "idx_reconciliation_issues_run", columnList = "run_id"))
+public class ReconciliationIssue {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(nullable = false)
+    private Long paymentId;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    // STALE_PENDING, PAID_CANCELLED, AMOUNT_MISMATCH, GATEWAY_MISMATCH, GATEWAY_ERROR
+    @Column(nullable = false, length = 32)
+    private String issueType;
+
+    @Column(length = 16)
+    private String paymentStatus;
+
+    @Column(length = 16)
+    private String orderStatus;
+
+    @Column(length = 16)
+    private String gatewayStatus;
+
+    private Long expectedAmount; // paise
+    private Long gatewayAmount; // paise
+
+    @Column(length = 500)
+    private String detail;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+    public Long getPaymentId() { return paymentId; }
+    public void setPaymentId(Long paymentId) { this.paymentId = paymentId; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getIssueType() { return issueType; }
+    public void setIssueType(String issueType) { this.issueType = issueType; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public String getOrderStatus() { return orderStatus; }
+    public void setOrderStatus(String orderStatus) { this.orderStatus = orderStatus; }
+    public String getGatewayStatus() { return gatewayStatus; }
+    public void setGatewayStatus(String gatewayStatus) { this.gatewayStatus = gatewayStatus; }
+    public Long getExpectedAmount() { return expectedAmount; }
+    public void setExpectedAmount(Long expectedAmount) { this.expectedAmount = expectedAmount; }
+    public Long getGatewayAmount() { return gatewayAmount; }
+    public void setGatewayAmount(Long gatewayAmount) { this.gatewayAmount = gatewayAmount; }
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,60 @@
+package com.rbu.backend.Entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One payment reconciliation pass over orders placed in [fromDate, toDate]; findings are ReconciliationIssue rows
+@Entity
+@Table(name = "reconciliation_runs")
+public class ReconciliationRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate fromDate;
+
+    @Column(nullable = false)
+    private LocalDate toDate;
+
+    @Column(nullable = false, length = 16)
+    private String status; // RUNNING, COMPLETED, FAILED
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private long paymentsScanned;
+    private long gatewayChecks;
+    private long gatewayErrors;
+    private long issueCount;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LocalDate getFromDate() { return fromDate; }
+    public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+    public LocalDate getToDate() { return toDate; }
+    public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public long getPaymentsScanned() { return paymentsScanned; }
+    public void setPaymentsScanned(long paymentsScanned) { this.paymentsScanned = paymentsScanned; }
+    public long getGatewayChecks() { return gatewayChecks; }
+    public void setGatewayChecks(long gatewayChecks) { this.gatewayChecks = gatewayChecks; }
+    public long getGatewayErrors() { return gatewayErrors; }
+    public void setGatewayErrors(long gatewayErrors) { this.gatewayErrors = gatewayErrors; }
+    public long getIssueCount() { return issueCount; }
+    public void setIssueCount(long issueCount) { this.issueCount = issueCount; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
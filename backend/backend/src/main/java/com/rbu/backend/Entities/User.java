@@ -1,10 +1,14 @@
 package com.rbu.backend.Entities;
 
 import jakarta.persistence.*;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_username_lower", columnList = "username_lower"),
+        @Index(name = "idx_users_email_lower", columnList = "email_lower")
+})
 public class User {
 
     @Id
@@ -20,6 +24,13 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    // Lower-cased copies for case-insensitive login lookups through plain indexes
+    @Column(name = "username_lower")
+    private String usernameLower;
+
+    @Column(name = "email_lower")
+    private String emailLower;
+
     @Column(name = "full_name", nullable = false)
     private String fullName;
 
@@ -31,6 +42,17 @@ public class User {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    // Bumped to revoke every JWT issued so far (tokens carry the version they were issued with)
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion;
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        usernameLower = username == null ? null : username.toLowerCase(Locale.ROOT);
+        emailLower = email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -41,6 +63,10 @@ public class User {
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
 
+    public String getUsernameLower() { return usernameLower; }
+
+    public String getEmailLower() { return emailLower; }
+
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
@@ -52,4 +78,7 @@ public class User {
 
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
 }
@@ -0,0 +1,8 @@
+package com.rbu.backend.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.rbu.backend.Entities.ComboRule;
+
+public interface ComboRuleRepository extends JpaRepository<ComboRule, Long> {
+}
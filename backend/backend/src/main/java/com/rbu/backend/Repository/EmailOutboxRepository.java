@@ -0,0 +1,8 @@
+package com.rbu.backend.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.rbu.backend.Entities.EmailOutbox;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+}
@@ -1,11 +1,27 @@
 package com.rbu.backend.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.rbu.backend.Entities.Order;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(Long userId);
+
+    // Status change as one conditional UPDATE: applies only while the order is still in one of `from`,
+    // so concurrent callers cannot overwrite each other. Returns 0 when another transition got there first.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1, "
+            + "o.readyTime = COALESCE(:readyTime, o.readyTime), o.completedTime = COALESCE(:completedTime, o.completedTime) "
+            + "WHERE o.id = :id AND o.status IN :from")
+    int transition(@Param("id") Long id, @Param("from") Collection<String> from, @Param("to") String to,
+                   @Param("readyTime") LocalDateTime readyTime, @Param("completedTime") LocalDateTime completedTime);
 }
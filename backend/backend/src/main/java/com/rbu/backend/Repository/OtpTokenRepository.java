@@ -2,10 +2,13 @@ package com.rbu.backend.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.rbu.backend.Entities.OtpToken;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface OtpTokenRepository extends JpaRepository<OtpToken, Long> {
@@ -14,4 +17,9 @@ public interface OtpTokenRepository extends JpaRepository<OtpToken, Long> {
     @Transactional
     @Modifying
     void deleteByEmail(String email);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OtpToken t WHERE (t.verifiedAt IS NULL AND t.expiresAt < :now) OR t.verifiedAt < :verifiedBefore")
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("verifiedBefore") LocalDateTime verifiedBefore);
 }
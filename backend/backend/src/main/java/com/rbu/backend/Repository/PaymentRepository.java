@@ -1,9 +1,31 @@
 package com.rbu.backend.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.rbu.backend.Entities.Payment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Payment findByOrderId(Long orderId);
-}
\ No newline at end of file
+    Payment findByGatewayOrderId(String gatewayOrderId);
+    Payment findByTransactionId(String transactionId);
+
+    // Conditional status change, see OrderRepository.transition
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.paymentStatus = :to, p.version = p.version + 1 WHERE p.id = :id AND p.paymentStatus IN :from")
+    int transition(@Param("id") Long id, @Param("from") Collection<String> from, @Param("to") String to);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.paymentStatus = 'SUCCESS', p.transactionId = COALESCE(:transactionId, p.transactionId), "
+            + "p.paymentTime = :paidAt, p.version = p.version + 1 WHERE p.id = :id AND p.paymentStatus IN :from")
+    int markSucceeded(@Param("id") Long id, @Param("from") Collection<String> from,
+                      @Param("transactionId") String transactionId, @Param("paidAt") LocalDateTime paidAt);
+}
@@ -0,0 +1,11 @@
+package com.rbu.backend.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.rbu.backend.Entities.ReconciliationIssue;
+
+import java.util.List;
+
+public interface ReconciliationIssueRepository extends JpaRepository<ReconciliationIssue, Long> {
+    List<ReconciliationIssue> findByRunIdOrderByIdAsc(Long runId);
+}
@@ -0,0 +1,11 @@
+package com.rbu.backend.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.rbu.backend.Entities.ReconciliationRun;
+
+import java.util.List;
+
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+    List<ReconciliationRun> findTop20ByOrderByIdDesc();
+}
@@ -1,9 +1,12 @@
 package com.rbu.backend.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.rbu.backend.Entities.User;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +14,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsernameIgnoreCase(String username);
     Optional<User> findByEmailIgnoreCase(String email);
+
+    // identifier must already be lower-cased; matches either column in one round trip
+    @Query("SELECT u FROM User u WHERE u.usernameLower = :identifier OR u.emailLower = :identifier")
+    List<User> findByLoginIdentifier(@Param("identifier") String identifier);
 }
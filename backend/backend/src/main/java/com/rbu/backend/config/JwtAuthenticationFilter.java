@@ -1,10 +1,16 @@
 package com.rbu.backend.config;
 
 import com.rbu.backend.service.CustomUserDetailsService;
+import com.rbu.backend.service.TokenRevocationService;
 import com.rbu.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -15,13 +21,19 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtUtil jwtUtil;
     @Autowired
     private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     // Helper to decide if this path should be skipped by the JWT filter
     private boolean shouldSkip(HttpServletRequest request) {
@@ -42,64 +54,70 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         try {
-            // Basic request logging for debugging
-            String reqPath = request.getRequestURI();
-            String method = request.getMethod();
-            String authHeaderPreview = request.getHeader("Authorization") != null ? "present" : "absent";
-            System.out.println("[JWT-FILTER] Incoming request: method=" + method + " path=" + reqPath + " Authorization=" + authHeaderPreview);
-
             // If this endpoint should be skipped, just continue the chain
             if (shouldSkip(request)) {
-                System.out.println("[JWT-FILTER] Skipping JWT processing for path=" + reqPath);
+                log.debug("Skipping JWT processing for path={}", request.getRequestURI());
                 filterChain.doFilter(request, response);
                 return;
             }
 
             final String authHeader = request.getHeader("Authorization");
             String username = null;
-            String jwt = null;
+            Claims claims = null;
 
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                jwt = authHeader.substring(7);
                 try {
-                    username = jwtUtil.extractUsername(jwt);
+                    // Single verification (signature + expiry), served from the token cache after the first request
+                    claims = jwtUtil.verify(authHeader.substring(7));
+                    username = claims.getSubject();
                 } catch (Exception ex) {
-                    // Log extraction errors so we can see invalid token reasons in Render logs
-                    System.out.println("[JWT-FILTER] Failed to extract username from JWT: " + ex.getMessage());
-                    ex.printStackTrace(System.out);
+                    // Bad or expired tokens are routine; the reason is enough, no stack trace
+                    log.debug("Rejected JWT for path={}: {}", request.getRequestURI(), ex.getMessage());
                 }
             } else {
-                // No Authorization header: log this (useful for curl tests)
-                System.out.println("[JWT-FILTER] No Authorization Bearer header present for path=" + reqPath);
+                log.debug("No Authorization Bearer header present for path={}", request.getRequestURI());
             }
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 try {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    boolean valid = jwtUtil.validateToken(jwt, userDetails.getUsername());
-                    if (valid) {
+                    UserDetails userDetails = claims.get(JwtUtil.ROLES_CLAIM) != null
+                            ? fromClaims(claims)
+                            : userDetailsService.loadUserByUsername(username); // tokens issued before roles were embedded
+                    if (userDetails != null && username.equals(userDetails.getUsername())) {
                         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
                         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authToken);
-                        System.out.println("[JWT-FILTER] Authentication set for user=" + username);
+                        log.debug("Authentication set for user={}", username);
                     } else {
-                        System.out.println("[JWT-FILTER] JWT validation failed for user=" + username);
+                        log.debug("JWT rejected for user={}", username);
                     }
                 } catch (Exception ex) {
                     // If user lookup or validation throws, log it and continue the chain
-                    System.out.println("[JWT-FILTER] Exception during authentication for username=" + username + " : " + ex.getMessage());
-                    ex.printStackTrace(System.out);
+                    log.warn("Exception during authentication for username={}: {}", username, ex.getMessage());
                 }
             }
 
         } catch (Exception ex) {
             // Catch-all to ensure filter never breaks the chain silently
-            System.out.println("[JWT-FILTER] Unexpected error: " + ex.getMessage());
-            ex.printStackTrace(System.out);
+            log.error("Unexpected error in JWT filter", ex);
         }
 
         // always continue the filter chain
         filterChain.doFilter(request, response);
     }
+
+    // Builds the principal from token claims; null when the token has been revoked
+    private UserDetails fromClaims(Claims claims) {
+        Number uid = claims.get(JwtUtil.USER_ID_CLAIM, Number.class);
+        Number ver = claims.get(JwtUtil.VERSION_CLAIM, Number.class);
+        if (uid == null || !tokenRevocationService.isCurrent(uid.longValue(), ver == null ? 0 : ver.intValue())) {
+            return null;
+        }
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        for (Object role : claims.get(JwtUtil.ROLES_CLAIM, List.class)) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        return new User(claims.getSubject(), "", authorities);
+    }
 }
@@ -0,0 +1,19 @@
+package com.rbu.backend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// Prometheus endpoint at /actuator/prometheus (ADMIN/STAFF only, see SecurityConfig). Service classes annotated with @Timed("canteen.service")
+// get a timer per method (tags class, method, exception); OperationalMetrics adds queue and cache gauges.
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
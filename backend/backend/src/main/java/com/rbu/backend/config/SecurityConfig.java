@@ -65,11 +65,11 @@ public class SecurityConfig {
                 config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "HEAD"));
                 config.setAllowedHeaders(Arrays.asList(
                     "Origin", "Content-Type", "Accept", "Authorization",
-                    "X-Requested-With", "Access-Control-Allow-Origin",
+                    "X-Requested-With", "X-Request-Id", "Access-Control-Allow-Origin",
                     "Access-Control-Allow-Headers", "Access-Control-Allow-Credentials"
                 ));
                 config.setExposedHeaders(Arrays.asList(
-                    "Authorization", "Content-Type", "Access-Control-Allow-Origin",
+                    "Authorization", "Content-Type", "X-Request-Id", "Access-Control-Allow-Origin",
                     "Access-Control-Allow-Headers", "Access-Control-Allow-Credentials"
                 ));
                 config.setAllowCredentials(true);
@@ -81,6 +81,9 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // Public (no auth) endpoints
                 .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                // Health for load balancers; every other actuator endpoint, prometheus included, needs an admin/staff token
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasAnyRole("ADMIN", "STAFF")
 
                 // Menu endpoints: GET for any authenticated user; write operations for ADMIN/STAFF
                 .requestMatchers(HttpMethod.GET, "/api/menu/**").authenticated()
@@ -99,14 +102,18 @@ public class SecurityConfig {
 
                 // Recommendations, analytics, payments, coupons accessible to any authenticated user
                 .requestMatchers(HttpMethod.POST, "/api/analytics/average-prep-time/reset").hasAnyRole("ADMIN", "STAFF")
+                .requestMatchers(HttpMethod.POST, "/api/analytics/popularity/reconcile").hasAnyRole("ADMIN", "STAFF")
+                .requestMatchers(HttpMethod.POST, "/api/recommendations/combos/mine").hasAnyRole("ADMIN", "STAFF")
+                .requestMatchers(HttpMethod.POST, "/api/recommendations/time-of-day/rebuild").hasAnyRole("ADMIN", "STAFF")
                 .requestMatchers("/api/recommendations/**").authenticated()
                 .requestMatchers("/api/analytics/**").authenticated()
                 // Preflight across the app
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 // Allow Razorpay order create/verify without auth (adjust to authenticated() if you require login)
-                .requestMatchers(HttpMethod.POST, "/api/payments/razorpay/order", "/api/payments/razorpay/verify").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/payments/razorpay/order", "/api/payments/razorpay/verify", "/api/payments/razorpay/webhook").permitAll()
                 // The rest of payments require auth
                 .requestMatchers("/api/payments/**").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/coupons/*/redeem").hasAnyRole("ADMIN", "STAFF")
                 .requestMatchers("/api/coupons/**").authenticated()
 
                 // Role-scoped namespaces if used elsewhere
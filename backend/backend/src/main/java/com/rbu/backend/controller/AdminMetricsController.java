@@ -0,0 +1,35 @@
+package com.rbu.backend.controller;
+
+import com.rbu.backend.service.CouponRedemptionService;
+import com.rbu.backend.service.PaymentGateway;
+import com.rbu.backend.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+public class AdminMetricsController {
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private PaymentGateway paymentGateway;
+    @Autowired
+    private CouponRedemptionService couponRedemptionService;
+
+    @GetMapping("/jwt-cache")
+    public Map<String, Object> getJwtCacheStats() {
+        return jwtUtil.cacheStats();
+    }
+
+    @GetMapping("/payment-gateway")
+    public Map<String, Object> getPaymentGatewayStats() {
+        return paymentGateway.getStats();
+    }
+
+    @GetMapping("/coupon-redemptions")
+    public Map<String, Object> getCouponRedemptionStats() {
+        return couponRedemptionService.getStats();
+    }
+}
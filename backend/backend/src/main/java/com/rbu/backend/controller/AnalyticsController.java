@@ -29,6 +29,11 @@ public class AnalyticsController {
         analyticsService.resetAveragePreparation();
     }
 
+    @PostMapping("/popularity/reconcile")
+    public void reconcilePopularity() {
+        analyticsService.reconcilePopularity();
+    }
+
     @GetMapping("/peak-hours")
     public Map<String, Long> getPeakHours() {
         return analyticsService.getPeakHours();
@@ -1,29 +1,44 @@
 package com.rbu.backend.controller;
 
-import com.rbu.backend.Entities.OtpToken;
 import com.rbu.backend.Entities.User;
-import com.rbu.backend.Repository.OtpTokenRepository;
 import com.rbu.backend.Repository.UserRepository;
 import com.rbu.backend.util.JwtUtil;
+import com.rbu.backend.service.CustomUserDetailsService;
 import com.rbu.backend.service.EmailService;
+import com.rbu.backend.service.LoginRateLimiter;
+import com.rbu.backend.service.OtpStore;
+import com.rbu.backend.service.PasswordCheckService;
+import com.rbu.backend.service.TokenRevocationService;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.time.LocalDateTime;
-import java.util.Random;
-import java.util.UUID;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
 
+@Timed("canteen.service")
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+    private static final SecureRandom OTP_RANDOM = new SecureRandom();
+    private static final Duration OTP_TTL = Duration.ofMinutes(10);
+
     @Autowired
     private AuthenticationManager authenticationManager; // retained for future use if switching back
     @Autowired
@@ -33,12 +48,20 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
     @Autowired
-    private OtpTokenRepository otpTokenRepository;
+    private OtpStore otpStore;
     @Autowired
     private EmailService emailService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private PasswordCheckService passwordCheckService;
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> payload) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> payload, HttpServletRequest request) {
         String identifier = payload.get("username"); // frontend sends 'username' field; treat as username or email
         String password = payload.get("password");
         if (identifier == null || password == null) {
@@ -46,20 +69,34 @@ public class AuthController {
         }
         final String idValue = identifier.trim();
 
-        User user = userRepository.findByUsernameIgnoreCase(idValue)
-                .orElseGet(() -> userRepository.findByEmailIgnoreCase(idValue).orElse(null));
+        long waitMs = loginRateLimiter.tryAcquire(request.getRemoteAddr(), idValue.toLowerCase(Locale.ROOT));
+        if (waitMs > 0) {
+            return ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)))
+                    .body("Too many login attempts. Please try again later.");
+        }
+
+        User user = userDetailsService.findByLoginIdentifier(idValue);
         if (user == null) {
             return ResponseEntity.status(401).body("Invalid username or password");
         }
 
-        // Prefer direct password check with configured PasswordEncoder to avoid provider misconfig
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        // BCrypt runs on the bounded password-check pool; a full pool means "busy", not "wrong password"
+        boolean matches;
+        try {
+            matches = passwordCheckService.matches(password, user.getPassword());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Login is busy. Please try again in a moment.");
+        }
+        if (!matches) {
             return ResponseEntity.status(401).body("Invalid username or password");
         }
         if (!user.isEnabled()) {
             throw new BadCredentialsException("Account is not verified");
         }
-        String token = jwtUtil.generateToken(user.getUsername());
+        String token = jwtUtil.generateToken(user);
         Map<String, Object> response = new HashMap<>();
         response.put("token", token);
         response.put("roles", user.getRoles());
@@ -69,6 +106,22 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    // Revokes every token issued to the caller, on all devices
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(401).body("Not logged in");
+        }
+        User user = userRepository.findByUsername(authentication.getName()).orElse(null);
+        if (user == null) {
+            return ResponseEntity.status(401).body("Not logged in");
+        }
+        tokenRevocationService.revokeAll(user.getId());
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("message", "Logged out from all devices");
+        return ResponseEntity.ok(resp);
+    }
+
     // Step 1: Request OTP with email only
     @PostMapping("/request-otp")
     @Transactional
@@ -77,6 +130,7 @@ public class AuthController {
         if (email == null) {
             return ResponseEntity.badRequest().body("Missing email");
         }
+        email = email.trim();
         if (!email.toLowerCase().endsWith("@rknec.edu")) {
             return ResponseEntity.badRequest().body("Email must be an @rknec.edu address");
         }
@@ -84,56 +138,39 @@ public class AuthController {
             return ResponseEntity.badRequest().body("Email already registered");
         }
         // Generate OTP and store
-        String otp = String.format("%06d", new Random().nextInt(1_000_000));
-        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
-        otpTokenRepository.findByEmail(email).ifPresent(t -> otpTokenRepository.deleteByEmail(email));
-        OtpToken token = new OtpToken();
-        token.setEmail(email);
-        token.setOtp(otp);
-        token.setCreatedAt(LocalDateTime.now());
-        token.setExpiresAt(expiresAt);
-        otpTokenRepository.save(token);
+        String otp = String.format("%06d", OTP_RANDOM.nextInt(1_000_000));
+        otpStore.issue(email, otp, OTP_TTL);
         Map<String, Object> resp = new HashMap<>();
-        try {
-            emailService.sendOtp(email, otp);
-            resp.put("message", "OTP sent to email. Expires in 10 minutes.");
-            resp.put("emailSent", true);
-        } catch (Exception ex) {
-            // In dev environments without SMTP, allow flow to proceed.
-            // The OTP is stored in DB; you can inspect logs/DB to retrieve if needed.
-            System.err.println("Failed to send OTP email: " + ex.getMessage());
-            resp.put("message", "OTP generated. Email sending failed (dev). Please check mail config.");
-            resp.put("emailSent", false);
-        }
+        // Queued in the email outbox with this transaction; SMTP happens on the dispatcher thread
+        emailService.sendOtp(email, otp);
+        resp.put("message", "OTP sent to email. Expires in 10 minutes.");
+        resp.put("emailSent", true);
         return ResponseEntity.ok(resp);
     }
 
     // Step 2: Verify OTP; issue a verificationId
     @PostMapping("/verify-otp")
-    @Transactional
     public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> payload) {
         String email = payload.get("email");
         String otp = payload.get("otp");
         if (email == null || otp == null) {
             return ResponseEntity.badRequest().body("Missing email or otp");
         }
-        OtpToken token = otpTokenRepository.findByEmail(email).orElse(null);
-        if (token == null) {
-            return ResponseEntity.badRequest().body("No OTP requested for this email");
-        }
-        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
-            otpTokenRepository.deleteByEmail(email);
-            return ResponseEntity.badRequest().body("OTP expired. Please request again.");
-        }
-        if (!token.getOtp().equals(otp)) {
-            return ResponseEntity.badRequest().body("Invalid OTP");
+        OtpStore.Result result = otpStore.verify(email.trim(), otp.trim());
+        switch (result.getStatus()) {
+            case NOT_FOUND:
+                return ResponseEntity.badRequest().body("No OTP requested for this email");
+            case EXPIRED:
+                return ResponseEntity.badRequest().body("OTP expired. Please request again.");
+            case TOO_MANY_ATTEMPTS:
+                return ResponseEntity.badRequest().body("Too many incorrect attempts. Please request a new OTP.");
+            case INVALID:
+                return ResponseEntity.badRequest().body("Invalid OTP");
+            default:
+                break;
         }
-        // Mark verified and issue verificationId
-        token.setVerificationId(UUID.randomUUID().toString());
-        token.setVerifiedAt(LocalDateTime.now());
-        otpTokenRepository.save(token);
         Map<String, Object> resp = new HashMap<>();
-        resp.put("verificationId", token.getVerificationId());
+        resp.put("verificationId", result.getVerificationId());
         resp.put("message", "Email verified. Complete registration.");
         return ResponseEntity.ok(resp);
     }
@@ -143,7 +180,6 @@ public class AuthController {
     @Transactional
     public ResponseEntity<?> completeRegistration(@RequestBody Map<String, String> payload) {
         try {
-            System.out.println("Complete registration payload: " + payload);
             String verificationId = payload.get("verificationId");
             String username = payload.get("username");
             String password = payload.get("password");
@@ -152,18 +188,18 @@ public class AuthController {
                 String error = "Missing required fields. verificationId: " + (verificationId != null ? "present" : "null") + 
                              ", username: " + (username != null ? "present" : "null") + 
                              ", password: " + (password != null ? "present" : "null");
-                System.err.println(error);
+                log.debug(error);
                 return ResponseEntity.badRequest().body(error);
             }
             
             if (userRepository.findByUsername(username).isPresent()) {
-                System.err.println("Username already exists: " + username);
+                log.debug("Username already exists: {}", username);
                 return ResponseEntity.badRequest().body("Username already exists");
             }
             
-            OtpToken token = otpTokenRepository.findByVerificationId(verificationId).orElse(null);
-            if (token == null || token.getVerifiedAt() == null) {
-                System.err.println("Invalid or unverified token. Token exists: " + (token != null));
+            String email = otpStore.verifiedEmail(verificationId);
+            if (email == null) {
+                log.debug("Unknown or expired verificationId");
                 return ResponseEntity.badRequest().body("Invalid or expired verification. Please try the OTP process again.");
             }
             
@@ -171,33 +207,28 @@ public class AuthController {
                 // Create user
                 User user = new User();
                 user.setUsername(username);
-                user.setEmail(token.getEmail());
+                user.setEmail(email);
                 user.setPassword(passwordEncoder.encode(password));
                 user.setFullName(username);
                 user.setRoles(Set.of("STUDENT"));
                 user.setEnabled(true);
                 
-                System.out.println("Saving user: " + user.getUsername() + ", email: " + user.getEmail());
                 userRepository.save(user);
-                System.out.println("User saved successfully");
+                log.info("Registered user {}", user.getUsername());
                 
-                // Cleanup token
-                otpTokenRepository.deleteByEmail(token.getEmail());
-                System.out.println("OTP token cleaned up");
+                otpStore.complete(verificationId);
                 
                 Map<String, Object> resp = new HashMap<>();
                 resp.put("message", "Account created. You can now login.");
                 return ResponseEntity.ok(resp);
                 
             } catch (Exception e) {
-                System.err.println("Error during user creation: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Error during user creation", e);
                 return ResponseEntity.status(500).body("Error creating user: " + e.getMessage());
             }
             
         } catch (Exception e) {
-            System.err.println("Unexpected error in completeRegistration: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error in completeRegistration", e);
             return ResponseEntity.status(500).body("An unexpected error occurred. Please try again.");
         }
     }
@@ -1,16 +1,22 @@
 package com.rbu.backend.controller;
 
 import com.rbu.backend.Entities.Coupon;
+import com.rbu.backend.service.CouponRedemptionService;
 import com.rbu.backend.service.CouponService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+
 @RestController
 @RequestMapping("/api/coupons")
 public class CouponController {
     @Autowired
     private CouponService couponService;
+    @Autowired
+    private CouponRedemptionService redemptionService;
 
     @GetMapping("/order/{orderId}")
     public ResponseEntity<Coupon> getByOrder(@PathVariable Long orderId) {
@@ -25,4 +31,18 @@ public class CouponController {
         if (c == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(c);
     }
+
+    // Pickup counter: marks the coupon collected and completes the order; exactly one of concurrent scans wins
+    @PostMapping("/{code}/redeem")
+    public ResponseEntity<CouponRedemptionService.Result> redeem(@PathVariable String code, Authentication auth) {
+        CouponRedemptionService.Result result = redemptionService.redeem(code, auth.getName());
+        switch (result.getStatus()) {
+            case REDEEMED:
+                return ResponseEntity.ok(result);
+            case NOT_FOUND:
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+            default:
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        }
+    }
 }
@@ -2,31 +2,50 @@ package com.rbu.backend.controller;
 
 import com.rbu.backend.Entities.FoodItem;
 import com.rbu.backend.service.FoodItemService;
+import com.rbu.backend.service.MenuImportService;
+import com.rbu.backend.service.MenuPayload;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+
 
 @RestController
 @RequestMapping("/api/menu")
 public class FoodItemController {
     @Autowired
     private FoodItemService foodItemService;
+    @Autowired
+    private MenuImportService menuImportService;
 
+    // List views are served from pre-encoded bytes; Spring answers If-None-Match with 304 from the ETag
     @GetMapping
-    public List<FoodItem> getAllFoodItems() {
-        return foodItemService.getAllFoodItems();
+    public ResponseEntity<byte[]> getAllFoodItems(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return writePayload(foodItemService.getAllFoodItemsPayload(), acceptEncoding);
     }
 
     @GetMapping("/available")
-    public List<FoodItem> getAvailableFoodItems() {
-        return foodItemService.getAvailableFoodItems();
+    public ResponseEntity<byte[]> getAvailableFoodItems(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return writePayload(foodItemService.getAvailableFoodItemsPayload(), acceptEncoding);
     }
 
     @GetMapping("/category/{category}")
-    public List<FoodItem> getFoodItemsByCategory(@PathVariable String category) {
-        return foodItemService.getFoodItemsByCategory(category);
+    public ResponseEntity<byte[]> getFoodItemsByCategory(@PathVariable String category,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return writePayload(foodItemService.getFoodItemsByCategoryPayload(category), acceptEncoding);
+    }
+
+    @GetMapping("/search")
+    public List<FoodItem> search(@RequestParam("q") String query,
+                                 @RequestParam(defaultValue = "20") int limit,
+                                 @RequestParam(defaultValue = "false") boolean availableOnly) {
+        return foodItemService.searchFoodItems(query, limit, availableOnly);
     }
 
     @GetMapping("/{id}")
@@ -41,6 +60,25 @@ public class FoodItemController {
         return foodItemService.createFoodItem(foodItem);
     }
 
+    // Bulk upsert: body is streamed, so large term menus are never held in memory as a whole
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<Map<String, Object>> importCsv(HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(menuImportService.importCsv(request.getInputStream()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> importJson(HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(menuImportService.importJson(request.getInputStream()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
     @PutMapping("/{id}")
     public FoodItem updateFoodItem(@PathVariable Long id, @RequestBody FoodItem foodItem) {
         return foodItemService.updateFoodItem(id, foodItem);
@@ -55,4 +93,24 @@ public class FoodItemController {
     public FoodItem setAvailability(@PathVariable Long id, @RequestParam boolean available) {
         return foodItemService.setAvailability(id, available);
     }
+
+    // quantity omitted = stop tracking stock for this item
+    @PatchMapping("/{id}/stock")
+    public FoodItem setStock(@PathVariable Long id, @RequestParam(required = false) Integer quantity) {
+        return foodItemService.setStock(id, quantity);
+    }
+
+    private ResponseEntity<byte[]> writePayload(MenuPayload payload, String acceptEncoding) {
+        boolean gzip = payload.getGzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.eTag(payload.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(payload.getGzip());
+        }
+        return builder.eTag(payload.getEtag()).body(payload.getJson());
+    }
 }
@@ -7,6 +7,8 @@ import com.rbu.backend.Repository.OrderRepository;
 import com.rbu.backend.service.PaymentService;
 import com.rbu.backend.service.CouponService;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +19,8 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
+    private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
+
     @Autowired
     private PaymentService paymentService;
     @Autowired
@@ -56,7 +60,7 @@ public class PaymentController {
     public ResponseEntity<Map<String, Object>> createRazorpayOrder(@RequestBody Map<String, Object> payload) {
         try {
             Long orderId = Long.valueOf(payload.get("orderId").toString());
-            System.out.println("[PAY] createRazorpayOrder orderId=" + orderId);
+            log.debug("createRazorpayOrder orderId={}", orderId);
             Map<String, Object> data = paymentService.createRazorpayOrder(orderId);
             return ResponseEntity.ok(data);
         } catch (Exception e) {
@@ -72,13 +76,23 @@ public class PaymentController {
             String razorpayPaymentId = payload.get("razorpayPaymentId").toString();
             String razorpaySignature = payload.get("razorpaySignature").toString();
 
-            System.out.println("[PAY] verifyRazorpay orderId=" + orderId + " rzpOrderId=" + razorpayOrderId);
+            log.debug("verifyRazorpay orderId={} rzpOrderId={}", orderId, razorpayOrderId);
             Map<String, Object> resp = paymentService.verifyRazorpayPayment(orderId, razorpayOrderId, razorpayPaymentId, razorpaySignature);
-            Coupon coupon = couponService.getByOrderId(orderId);
-            resp.put("couponCode", coupon != null ? coupon.getCode() : null);
             return ResponseEntity.ok(resp);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    // Razorpay webhook: acknowledge quickly, apply asynchronously through the payment event table
+    @PostMapping("/razorpay/webhook")
+    public ResponseEntity<Void> razorpayWebhook(@RequestBody String body,
+                                                @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+                                                @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        if (!paymentService.acceptWebhook(body, signature, eventId)) {
+            log.warn("Rejected Razorpay webhook (eventId={})", eventId);
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().build();
+    }
 }
@@ -2,10 +2,14 @@ package com.rbu.backend.controller;
 
 import com.rbu.backend.Entities.FoodItem;
 import com.rbu.backend.service.RecommendationService;
+import com.rbu.backend.service.TrendingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/recommendations")
@@ -18,8 +22,45 @@ public class RecommendationController {
         return recommendationService.getMostOrderedToday(limit);
     }
 
+    // window: today | hour | hot
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(@RequestParam(defaultValue = "hot") String window, @RequestParam(defaultValue = "5") int limit) {
+        for (TrendingService.Window w : TrendingService.Window.values()) {
+            if (w.name().equalsIgnoreCase(window.trim())) {
+                return ResponseEntity.ok(recommendationService.getTrending(w, limit));
+            }
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", "window must be one of today, hour, hot"));
+    }
+
     @GetMapping("/frequently-with/{foodItemId}")
     public List<FoodItem> getFrequentlyWith(@PathVariable Long foodItemId, @RequestParam(defaultValue = "5") int limit) {
         return recommendationService.getFrequentlyOrderedWith(foodItemId, limit);
     }
+
+    @GetMapping("/for-me")
+    public List<FoodItem> getForMe(Authentication auth, @RequestParam(defaultValue = "5") int limit) {
+        return recommendationService.getForUser(auth.getName(), limit);
+    }
+
+    @GetMapping("/now")
+    public List<FoodItem> getForNow(@RequestParam(defaultValue = "5") int limit) {
+        return recommendationService.getForNow(limit);
+    }
+
+    @PostMapping("/time-of-day/rebuild")
+    public void rebuildTimeOfDay() {
+        recommendationService.rebuildTimeOfDay();
+    }
+
+    // itemIds: the current basket, e.g. ?itemIds=3,17
+    @GetMapping("/combos")
+    public List<Map<String, Object>> getCombos(@RequestParam List<Long> itemIds, @RequestParam(defaultValue = "3") int limit) {
+        return recommendationService.getCombos(itemIds, limit);
+    }
+
+    @PostMapping("/combos/mine")
+    public void mineCombos() {
+        recommendationService.mineCombos();
+    }
 }
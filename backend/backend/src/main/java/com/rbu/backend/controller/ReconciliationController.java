@@ -0,0 +1,55 @@
+package com.rbu.backend.controller;
+
+import com.rbu.backend.Entities.ReconciliationIssue;
+import com.rbu.backend.Entities.ReconciliationRun;
+import com.rbu.backend.Repository.ReconciliationIssueRepository;
+import com.rbu.backend.Repository.ReconciliationRunRepository;
+import com.rbu.backend.service.PaymentReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/reconciliation")
+public class ReconciliationController {
+    @Autowired
+    private PaymentReconciliationService reconciliationService;
+    @Autowired
+    private ReconciliationRunRepository runRepository;
+    @Autowired
+    private ReconciliationIssueRepository issueRepository;
+
+    // Runs synchronously; both dates default to today (IST)
+    @PostMapping("/run")
+    public ResponseEntity<?> run(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+        LocalDate start = from != null ? from : today;
+        LocalDate end = to != null ? to : start.isAfter(today) ? start : today;
+        if (end.isBefore(start)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "to must not be before from"));
+        }
+        try {
+            return ResponseEntity.ok(reconciliationService.run(start, end));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/runs")
+    public List<ReconciliationRun> getRuns() {
+        return runRepository.findTop20ByOrderByIdDesc();
+    }
+
+    @GetMapping("/runs/{runId}/issues")
+    public List<ReconciliationIssue> getIssues(@PathVariable Long runId) {
+        return issueRepository.findByRunIdOrderByIdAsc(runId);
+    }
+}
@@ -7,6 +7,7 @@ import com.rbu.backend.Repository.FoodItemRepository;
 import com.rbu.backend.Repository.OrderRepository;
 import com.rbu.backend.Repository.AnalyticsSettingsRepository;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +18,7 @@ import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Timed("canteen.service")
 @Service
 public class AnalyticsService {
     @Autowired
@@ -25,39 +27,30 @@ public class AnalyticsService {
     private OrderRepository orderRepository;
     @Autowired
     private AnalyticsSettingsRepository analyticsSettingsRepository;
+    @Autowired
+    private PopularityService popularityService;
 
     private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
 
     public List<FoodItem> getBestsellers(int limit) {
-        // Compute real-time counts based on actual orders (exclude CANCELLED)
-        Map<Long, Long> counts = new HashMap<>();
-        orderRepository.findAll().stream()
-                .filter(o -> o.getItems() != null && !"CANCELLED".equals(o.getStatus()))
-                .forEach(o -> o.getItems().forEach(item ->
-                        counts.merge(item.getId(), 1L, (a, b) -> a + b)));
-
-        if (counts.isEmpty()) {
-            return foodItemRepository.findAll().stream()
-                    .sorted(Comparator.comparingInt(FoodItem::getTotalOrders).reversed())
-                    .limit(limit)
-                    .collect(Collectors.toList());
-        }
-
-        List<Long> topIds = counts.entrySet().stream()
-                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        // Fetch items and preserve ranking order
+        // Live counters are kept by PopularityService, so no order scan is needed
+        List<Long> topIds = popularityService.topIds(limit);
         Map<Long, FoodItem> byId = foodItemRepository.findAllById(topIds).stream()
                 .collect(Collectors.toMap(FoodItem::getId, fi -> fi));
         return topIds.stream()
                 .map(byId::get)
                 .filter(Objects::nonNull)
+                .map(fi -> {
+                    fi.setTotalOrders((int) popularityService.getTotal(fi.getId()));
+                    return fi;
+                })
                 .collect(Collectors.toList());
     }
 
+    public void reconcilePopularity() {
+        popularityService.reconcile();
+    }
+
     public double getAveragePreparationTime() {
         LocalDateTime cutoff = analyticsSettingsRepository.findById(1L)
                 .map(AnalyticsSettings::getAvgResetAfter)
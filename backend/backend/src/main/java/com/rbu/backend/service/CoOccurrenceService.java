@@ -0,0 +1,98 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.util.IntCountMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sparse item x item co-occurrence counts: one primitive row per item, locked per row.
+// Seeded from order history at startup and kept current from order events.
+@Service
+public class CoOccurrenceService {
+    private static final Logger log = LoggerFactory.getLogger(CoOccurrenceService.class);
+
+    private static final String HISTORY_SQL =
+            "SELECT oi.order_id, oi.food_item_id FROM order_items oi JOIN orders o ON o.id = oi.order_id "
+                    + "WHERE o.status <> 'CANCELLED' ORDER BY oi.order_id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ConcurrentHashMap<Long, IntCountMap> rows = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seed() {
+        try {
+            // Streamed with a cursor (needs the surrounding transaction on PostgreSQL)
+            JdbcTemplate streaming = new JdbcTemplate(dataSource);
+            streaming.setFetchSize(1000);
+            List<Long> basket = new ArrayList<>();
+            long[] current = {-1L};
+            int[] orders = {0};
+            streaming.query(HISTORY_SQL, rs -> {
+                long orderId = rs.getLong(1);
+                if (orderId != current[0]) {
+                    record(basket, 1);
+                    basket.clear();
+                    current[0] = orderId;
+                    orders[0]++;
+                }
+                basket.add(rs.getLong(2));
+            });
+            record(basket, 1);
+            log.info("Co-occurrence matrix seeded from {} orders ({} items)", orders[0], rows.size());
+        } catch (Exception e) {
+            log.warn("Could not seed co-occurrence matrix: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        record(event.getItemIds(), event.getDelta());
+    }
+
+    public List<Long> topNeighbors(Long foodItemId, int k) {
+        IntCountMap row = rows.get(foodItemId);
+        if (row == null || k <= 0) return List.of();
+        // Min-heap holding the best k {count, id} pairs seen so far
+        PriorityQueue<long[]> heap = new PriorityQueue<>(k + 1, Comparator.comparingLong(a -> a[0]));
+        synchronized (row) {
+            row.forEach((key, count) -> {
+                if (count <= 0) return;
+                if (heap.size() < k) {
+                    heap.offer(new long[]{count, key});
+                } else if (count > heap.peek()[0]) {
+                    heap.poll();
+                    heap.offer(new long[]{count, key});
+                }
+            });
+        }
+        Long[] ids = new Long[heap.size()];
+        for (int i = ids.length - 1; i >= 0; i--) ids[i] = heap.poll()[1];
+        return Arrays.asList(ids);
+    }
+
+    private void record(List<Long> itemIds, int delta) {
+        if (itemIds == null || itemIds.size() < 2) return;
+        long[] distinct = itemIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().toArray();
+        for (long a : distinct) {
+            IntCountMap row = rows.computeIfAbsent(a, k -> new IntCountMap());
+            synchronized (row) {
+                for (long b : distinct) {
+                    if (a != b) row.add(Math.toIntExact(b), delta);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.Entities.ComboRule;
+import com.rbu.backend.Repository.ComboRuleRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+// Nightly association-rule mining over order history (Apriori, itemsets of up to three items).
+// Orders are read a page at a time and each page is counted in parallel with fork/join, so memory
+// holds one page plus the itemset counts. The best rules go to combo_rules and are served from memory.
+@Service
+public class ComboMiningService {
+    private static final Logger log = LoggerFactory.getLogger(ComboMiningService.class);
+
+    private static final String PAGE_IDS_SQL =
+            "SELECT id FROM orders WHERE id > ? AND status <> 'CANCELLED' ORDER BY id LIMIT ?";
+    private static final String PAGE_ITEMS_SQL =
+            "SELECT order_id, food_item_id FROM order_items WHERE order_id > ? AND order_id <= ?";
+
+    private static final int MAX_ID = (1 << 21) - 1; // three ids are packed into one long key
+    private static final long PAIR_TAG = 1L << 62;
+    private static final long TRIPLE_TAG = 2L << 62;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ComboRuleRepository comboRuleRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.combos.page-size:5000}")
+    private int pageSize;
+    @Value("${app.combos.min-support:0.005}")
+    private double minSupport;
+    @Value("${app.combos.min-count:3}")
+    private int minCount;
+    @Value("${app.combos.min-confidence:0.2}")
+    private double minConfidence;
+    @Value("${app.combos.rules-per-antecedent:5}")
+    private int rulesPerAntecedent;
+    @Value("${app.combos.max-rules:2000}")
+    private int maxRules;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, List<ComboRule>> rulesByAntecedent = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRules() {
+        try {
+            publish(comboRuleRepository.findAll());
+        } catch (Exception e) {
+            log.warn("Could not load combo rules: {}", e.getMessage());
+        }
+    }
+
+    // Lookup only; the basket key is built from the sorted ids
+    public List<ComboRule> rulesFor(Collection<Long> basket, int limit) {
+        List<ComboRule> rules = rulesByAntecedent.getOrDefault(keyOf(basket), List.of());
+        int n = Math.max(limit, 0); // a negative limit from the query string means no rules, not a 500
+        return rules.size() > n ? rules.subList(0, n) : rules;
+    }
+
+    @Scheduled(cron = "${app.combos.cron:0 0 4 * * *}", zone = "Asia/Kolkata")
+    public void mine() {
+        if (!running.compareAndSet(false, true)) return;
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            long started = System.currentTimeMillis();
+
+            // Pass 1: single item support
+            Map<Long, Integer> singles = new HashMap<>();
+            long transactions = scan(pool, (tx, counts) -> {
+                for (int id : tx) counts.merge((long) id, 1, Integer::sum);
+            }, singles);
+            if (transactions == 0) return;
+            long threshold = Math.max(minCount, (long) Math.ceil(minSupport * transactions));
+            Set<Integer> frequent = singles.entrySet().stream()
+                    .filter(e -> e.getValue() >= threshold)
+                    .map(e -> e.getKey().intValue())
+                    .collect(Collectors.toSet());
+
+            // Pass 2: pairs and triples of frequent items
+            Map<Long, Integer> sets = new HashMap<>();
+            scan(pool, (tx, counts) -> {
+                int[] f = Arrays.stream(tx).filter(frequent::contains).toArray();
+                for (int i = 0; i < f.length; i++) {
+                    for (int j = i + 1; j < f.length; j++) {
+                        counts.merge(pairKey(f[i], f[j]), 1, Integer::sum);
+                        for (int k = j + 1; k < f.length; k++) {
+                            counts.merge(tripleKey(f[i], f[j], f[k]), 1, Integer::sum);
+                        }
+                    }
+                }
+            }, sets);
+
+            List<ComboRule> rules = buildRules(singles, sets, transactions, threshold);
+            transactionTemplate.executeWithoutResult(status -> {
+                comboRuleRepository.deleteAllInBatch();
+                comboRuleRepository.saveAll(rules);
+            });
+            publish(rules);
+            log.info("Combo mining: {} orders, {} frequent items, {} rules in {} ms",
+                    transactions, frequent.size(), rules.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("Combo mining failed: {}", e.getMessage());
+        } finally {
+            pool.shutdown();
+            running.set(false);
+        }
+    }
+
+    // Pages through non-cancelled orders by id and folds each page's counts into total; returns the order count
+    private long scan(ForkJoinPool pool, BiConsumer<int[], Map<Long, Integer>> counter, Map<Long, Integer> total) {
+        long lastId = 0;
+        long seen = 0;
+        while (true) {
+            List<Long> orderIds = jdbcTemplate.queryForList(PAGE_IDS_SQL, Long.class, lastId, pageSize);
+            if (orderIds.isEmpty()) return seen;
+            long upTo = orderIds.get(orderIds.size() - 1);
+
+            // Cancelled orders inside the id range are dropped here, since only page ids have a basket
+            Map<Long, List<Integer>> page = new HashMap<>();
+            for (Long id : orderIds) page.put(id, new ArrayList<>());
+            jdbcTemplate.query(PAGE_ITEMS_SQL, rs -> {
+                List<Integer> basket = page.get(rs.getLong(1));
+                long itemId = rs.getLong(2);
+                if (basket != null && itemId <= MAX_ID) basket.add((int) itemId);
+            }, lastId, upTo);
+
+            int[][] txs = new int[page.size()][];
+            int i = 0;
+            for (List<Integer> items : page.values()) {
+                txs[i++] = items.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+            }
+            pool.invoke(new CountTask(txs, 0, txs.length, counter))
+                    .forEach((k, v) -> total.merge(k, v, Integer::sum));
+            seen += txs.length;
+            lastId = upTo;
+            if (orderIds.size() < pageSize) return seen;
+        }
+    }
+
+    private List<ComboRule> buildRules(Map<Long, Integer> singles, Map<Long, Integer> sets, long n, long threshold) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List<ComboRule>> byAntecedent = new HashMap<>();
+        for (Map.Entry<Long, Integer> e : sets.entrySet()) {
+            int count = e.getValue();
+            if (count < threshold) continue;
+            long key = e.getKey();
+            if ((key & TRIPLE_TAG) == TRIPLE_TAG) {
+                int a = (int) ((key >>> 42) & MAX_ID), b = (int) ((key >>> 21) & MAX_ID), c = (int) (key & MAX_ID);
+                addRule(byAntecedent, new int[]{a, b}, c, count, sets.get(pairKey(a, b)), singles, n, now);
+                addRule(byAntecedent, new int[]{a, c}, b, count, sets.get(pairKey(a, c)), singles, n, now);
+                addRule(byAntecedent, new int[]{b, c}, a, count, sets.get(pairKey(b, c)), singles, n, now);
+            } else {
+                int a = (int) ((key >>> 21) & MAX_ID), b = (int) (key & MAX_ID);
+                addRule(byAntecedent, new int[]{a}, b, count, singles.get((long) a), singles, n, now);
+                addRule(byAntecedent, new int[]{b}, a, count, singles.get((long) b), singles, n, now);
+            }
+        }
+        Comparator<ComboRule> best = Comparator.comparingDouble(ComboRule::getConfidence)
+                .thenComparingDouble(ComboRule::getLift).reversed();
+        return byAntecedent.values().stream()
+                .flatMap(list -> list.stream().sorted(best).limit(rulesPerAntecedent))
+                .sorted(best)
+                .limit(maxRules)
+                .collect(Collectors.toList());
+    }
+
+    private void addRule(Map<String, List<ComboRule>> out, int[] antecedent, int consequent, int count,
+                         Integer antecedentCount, Map<Long, Integer> singles, long n, LocalDateTime now) {
+        if (antecedentCount == null || antecedentCount == 0) return;
+        double confidence = (double) count / antecedentCount;
+        double lift = confidence / ((double) singles.getOrDefault((long) consequent, 1) / n);
+        if (confidence < minConfidence || lift <= 1.0) return;
+        ComboRule rule = new ComboRule();
+        rule.setAntecedent(Arrays.stream(antecedent).mapToObj(String::valueOf).collect(Collectors.joining(",")));
+        rule.setConsequent((long) consequent);
+        rule.setSupport((double) count / n);
+        rule.setConfidence(confidence);
+        rule.setLift(lift);
+        rule.setComputedAt(now);
+        out.computeIfAbsent(rule.getAntecedent(), k -> new ArrayList<>()).add(rule);
+    }
+
+    private void publish(List<ComboRule> rules) {
+        Map<String, List<ComboRule>> index = new HashMap<>();
+        for (ComboRule r : rules) index.computeIfAbsent(r.getAntecedent(), k -> new ArrayList<>()).add(r);
+        index.values().forEach(list -> list.sort(Comparator.comparingDouble(ComboRule::getConfidence).reversed()));
+        rulesByAntecedent = index;
+    }
+
+    private static String keyOf(Collection<Long> basket) {
+        return basket.stream().filter(Objects::nonNull).distinct().sorted()
+                .map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static long pairKey(int a, int b) {
+        return PAIR_TAG | ((long) a << 21) | b;
+    }
+
+    private static long tripleKey(int a, int b, int c) {
+        return TRIPLE_TAG | ((long) a << 42) | ((long) b << 21) | c;
+    }
+
+    // Splits a page of transactions until slices are small, counting each slice into its own map
+    private static class CountTask extends RecursiveTask<Map<Long, Integer>> {
+        private static final int SLICE = 512;
+        private final int[][] txs;
+        private final int from;
+        private final int to;
+        private final BiConsumer<int[], Map<Long, Integer>> counter;
+
+        CountTask(int[][] txs, int from, int to, BiConsumer<int[], Map<Long, Integer>> counter) {
+            this.txs = txs;
+            this.from = from;
+            this.to = to;
+            this.counter = counter;
+        }
+
+        @Override
+        protected Map<Long, Integer> compute() {
+            if (to - from <= SLICE) {
+                Map<Long, Integer> counts = new HashMap<>();
+                for (int i = from; i < to; i++) counter.accept(txs[i], counts);
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(txs, from, mid, counter);
+            left.fork();
+            Map<Long, Integer> right = new CountTask(txs, mid, to, counter).compute();
+            Map<Long, Integer> merged = left.join();
+            right.forEach((k, v) -> merged.merge(k, v, Integer::sum));
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.Entities.OrderStatus;
+import com.rbu.backend.util.BloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+// Pickup-counter redemption. Outstanding coupons (order paid and in the kitchen, i.e. PREPARING or READY,
+// not redeemed) are held in memory: a Bloom filter turns away unknown codes, and the code -> order map is
+// the source of truth, so a scan is one atomic remove and concurrent scans of the same code at several
+// counters have exactly one winner. A code enters the map once the move to PREPARING has committed and
+// leaves it on COMPLETED or CANCELLED, so unpaid orders are never redeemable. The order's move to COMPLETED
+// and then redeemed_at/redeemed_by are written in batches on a background thread.
+@Service
+public class CouponRedemptionService {
+    private static final Logger log = LoggerFactory.getLogger(CouponRedemptionService.class);
+
+    private static final String COMPLETABLE = OrderStatus.COMPLETED.sources().stream()
+            .map(s -> "'" + s + "'").collect(Collectors.joining(", "));
+    private static final String LOAD_SQL =
+            "SELECT c.code, c.order_id FROM coupons c JOIN orders o ON o.id = c.order_id "
+                    + "WHERE c.redeemed_at IS NULL AND o.status IN (" + COMPLETABLE + ")";
+    private static final String MARK_SQL =
+            "UPDATE coupons SET redeemed_at = ?, redeemed_by = ? WHERE code = ? AND redeemed_at IS NULL";
+    private static final String COMPLETE_SQL =
+            "UPDATE orders SET status = 'COMPLETED', completed_time = ?, version = version + 1 "
+                    + "WHERE id = ? AND status IN (" + COMPLETABLE + ")";
+    private static final String CLAIM_SQL = "SELECT order_id FROM coupons WHERE code = ? AND redeemed_at IS NULL FOR UPDATE";
+    private static final String LOOKUP_SQL = "SELECT redeemed_at, redeemed_by FROM coupons WHERE code = ?";
+    private static final String FINISHED_SQL = "SELECT id FROM orders WHERE status IN ('COMPLETED', 'CANCELLED') AND id IN (%s)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private CouponService couponService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.coupons.redeem-batch-size:500}")
+    private int batchSize;
+    @Value("${app.coupons.bloom-min-capacity:50000}")
+    private int bloomMinCapacity;
+    @Value("${app.coupons.bloom-false-positive-rate:0.01}")
+    private double bloomFalsePositiveRate;
+
+    private final ConcurrentHashMap<String, Long> active = new ConcurrentHashMap<>();
+    // Redeemed since the last nightly prune, so a second scan can say when and by whom
+    private final ConcurrentHashMap<String, Redemption> recent = new ConcurrentHashMap<>();
+    private final Queue<Redemption> unflushed = new ConcurrentLinkedQueue<>();
+    private volatile BloomFilter bloom = new BloomFilter(1, 0.5);
+    private volatile BloomFilter building;
+    private volatile boolean ready;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), r -> {
+                Thread t = new Thread(r, "coupon-redemptions");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            BloomFilter filter = newFilter(bloomMinCapacity);
+            building = filter;
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                String code = rs.getString(1);
+                active.putIfAbsent(code, rs.getLong(2));
+                filter.add(code);
+            });
+            for (String code : active.keySet()) filter.add(code); // placed while loading
+            bloom = filter;
+            building = null;
+            ready = true;
+            log.info("Coupon redemption index loaded: {} outstanding coupons", active.size());
+        } catch (Exception e) {
+            building = null;
+            log.warn("Could not load coupon redemption index, redeeming from the DB: {}", e.getMessage());
+        }
+    }
+
+    // After commit, so a rolled-back payment never makes a code redeemable. Only PREPARING adds: a READY
+    // event could otherwise re-add a code redeemed (and not yet flushed) while the order was PREPARING.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatus(OrderStatusEvent event) {
+        String code = couponService.codeFor(event.getOrderId());
+        if (event.getStatus() == OrderStatus.PREPARING) {
+            active.put(code, event.getOrderId());
+            bloom.add(code);
+            BloomFilter next = building;
+            if (next != null) next.add(code);
+        } else if (event.getStatus().isFinal()) {
+            active.remove(code, event.getOrderId());
+        }
+    }
+
+    public Result redeem(String code, String staff) {
+        Result result = tryRedeem(code, staff);
+        meterRegistry.counter("canteen.coupons.redemptions", "result", result.getStatus().name()).increment();
+        return result;
+    }
+
+    private Result tryRedeem(String code, String staff) {
+        if (!couponService.isAuthentic(code)) return Result.notFound();
+        if (!ready) return redeemInDb(code, staff);
+        if (!bloom.mightContain(code)) return notOutstanding(code);
+        Long orderId = active.remove(code);
+        if (orderId == null) return notOutstanding(code);
+
+        Redemption redemption = new Redemption(code, orderId, staff, LocalDateTime.now());
+        recent.put(code, redemption);
+        unflushed.add(redemption);
+        executor.execute(this::flush);
+        return Result.redeemed(redemption);
+    }
+
+    // No DB access: not paid yet, redeemed before the last restart, order finished or cancelled, or never issued
+    private Result notOutstanding(String code) {
+        Redemption previous = recent.get(code);
+        if (previous != null) return Result.alreadyRedeemed(previous.redeemedAt, previous.staff);
+        return Result.notRedeemable();
+    }
+
+    // Slow path while the index is not loaded. The coupon row is locked, and it is only marked if the
+    // order could be completed (it is PREPARING or READY).
+    private Result redeemInDb(String code, String staff) {
+        LocalDateTime now = LocalDateTime.now();
+        Result result = transactionTemplate.execute(tx -> {
+            List<Long> ids = jdbcTemplate.queryForList(CLAIM_SQL, Long.class, code);
+            if (ids.isEmpty()) return null;
+            if (!orderService.transition(ids.get(0), OrderStatus.COMPLETED)) return Result.notRedeemable();
+            jdbcTemplate.update(MARK_SQL, Timestamp.valueOf(now), staff, code);
+            return Result.redeemed(new Redemption(code, ids.get(0), staff, now));
+        });
+        if (result != null) return result;
+        List<Result> rows = jdbcTemplate.query(LOOKUP_SQL, (rs, i) -> {
+            Timestamp at = rs.getTimestamp(1);
+            return at != null ? Result.alreadyRedeemed(at.toLocalDateTime(), rs.getString(2)) : Result.notRedeemable();
+        }, code);
+        return rows.isEmpty() ? Result.notFound() : rows.get(0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.coupons.redeem-flush-interval-ms:1000}")
+    public void poll() {
+        if (!unflushed.isEmpty()) executor.execute(this::flush);
+    }
+
+    void flush() {
+        while (true) {
+            List<Redemption> batch = new ArrayList<>(batchSize);
+            Redemption r;
+            while (batch.size() < batchSize && (r = unflushed.poll()) != null) batch.add(r);
+            if (batch.isEmpty()) return;
+            try {
+                List<Redemption> rejected = transactionTemplate.execute(status -> {
+                    int[] completed = jdbcTemplate.batchUpdate(COMPLETE_SQL, batch.stream().map(x -> new Object[]{
+                            Timestamp.valueOf(x.redeemedAt), x.orderId}).toList());
+                    // The coupon is only marked if its order completed; one cancelled after the scan is not
+                    List<Redemption> done = new ArrayList<>();
+                    List<Redemption> failed = new ArrayList<>();
+                    for (int i = 0; i < batch.size(); i++) (completed[i] == 1 ? done : failed).add(batch.get(i));
+                    jdbcTemplate.batchUpdate(MARK_SQL, done.stream().map(x -> new Object[]{
+                            Timestamp.valueOf(x.redeemedAt), x.staff, x.code}).toList());
+                    return failed;
+                });
+                for (Redemption x : rejected) {
+                    recent.remove(x.code, x);
+                    log.warn("Coupon {} was scanned but order {} could no longer be completed", x.code, x.orderId);
+                }
+                meterRegistry.counter("canteen.order.transitions", "to", "COMPLETED", "result", "applied").increment(batch.size() - rejected.size());
+                meterRegistry.counter("canteen.order.transitions", "to", "COMPLETED", "result", "rejected").increment(rejected.size());
+            } catch (Exception e) {
+                unflushed.addAll(batch);
+                log.warn("Could not flush {} coupon redemptions, will retry: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Drops coupons whose order was finished without a scan, forgets old redemptions and resizes the filter
+    @Scheduled(cron = "${app.coupons.index-rebuild-cron:0 15 4 * * *}", zone = "Asia/Kolkata")
+    public void rebuild() {
+        if (!ready) {
+            load();
+            return;
+        }
+        try {
+            List<Long> orderIds = new ArrayList<>(new HashSet<>(active.values()));
+            Set<Long> finished = new HashSet<>();
+            for (int i = 0; i < orderIds.size(); i += 1000) {
+                List<Long> chunk = orderIds.subList(i, Math.min(orderIds.size(), i + 1000));
+                String sql = String.format(FINISHED_SQL, String.join(",", Collections.nCopies(chunk.size(), "?")));
+                finished.addAll(jdbcTemplate.queryForList(sql, Long.class, chunk.toArray()));
+            }
+            active.values().removeIf(finished::contains);
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+            recent.values().removeIf(x -> x.redeemedAt.isBefore(cutoff));
+
+            // Registrations during the copy go to both filters (see onOrderStatus)
+            BloomFilter filter = newFilter(active.size());
+            building = filter;
+            for (String code : active.keySet()) filter.add(code);
+            bloom = filter;
+            building = null;
+            log.info("Coupon redemption index rebuilt: {} outstanding, {} pruned", active.size(), finished.size());
+        } catch (Exception e) {
+            building = null;
+            log.warn("Coupon redemption index rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("outstanding", active.size());
+        stats.put("recentlyRedeemed", recent.size());
+        stats.put("unflushed", unflushed.size());
+        stats.put("bloomEntries", bloom.getAdded());
+        return stats;
+    }
+
+    private BloomFilter newFilter(int entries) {
+        return new BloomFilter(Math.max(bloomMinCapacity, entries * 2), bloomFalsePositiveRate);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        flush();
+    }
+
+    static class Redemption {
+        final String code;
+        final long orderId;
+        final String staff;
+        final LocalDateTime redeemedAt;
+
+        Redemption(String code, long orderId, String staff, LocalDateTime redeemedAt) {
+            this.code = code;
+            this.orderId = orderId;
+            this.staff = staff;
+            this.redeemedAt = redeemedAt;
+        }
+    }
+
+    public static final class Result {
+        public enum Status { REDEEMED, ALREADY_REDEEMED, NOT_REDEEMABLE, NOT_FOUND }
+
+        private final Status status;
+        private final Long orderId;
+        private final LocalDateTime redeemedAt;
+        private final String redeemedBy;
+
+        private Result(Status status, Long orderId, LocalDateTime redeemedAt, String redeemedBy) {
+            this.status = status;
+            this.orderId = orderId;
+            this.redeemedAt = redeemedAt;
+            this.redeemedBy = redeemedBy;
+        }
+
+        static Result redeemed(Redemption r) { return new Result(Status.REDEEMED, r.orderId, r.redeemedAt, r.staff); }
+        static Result alreadyRedeemed(LocalDateTime at, String by) { return new Result(Status.ALREADY_REDEEMED, null, at, by); }
+        static Result notRedeemable() { return new Result(Status.NOT_REDEEMABLE, null, null, null); }
+        static Result notFound() { return new Result(Status.NOT_FOUND, null, null, null); }
+
+        public Status getStatus() { return status; }
+        public Long getOrderId() { return orderId; }
+        public LocalDateTime getRedeemedAt() { return redeemedAt; }
+        public String getRedeemedBy() { return redeemedBy; }
+    }
+}
@@ -1,52 +1,151 @@
 package com.rbu.backend.service;
 
 import com.rbu.backend.Entities.Coupon;
-import com.rbu.backend.Entities.Order;
 import com.rbu.backend.Repository.CouponRepository;
 import com.rbu.backend.Repository.OrderRepository;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.security.SecureRandom;
+import jakarta.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 
+// Coupon codes are derived from the order id: RBU-{orderId}-XXXXXX where the suffix is an HMAC of the id
+// under app.coupons.secret. Generating one needs no lookup, and a code can be checked for authenticity
+// in memory. Codes issued before this (random suffix) are recognised by order id and checked in the DB.
 @Service
 public class CouponService {
+    private static final Logger log = LoggerFactory.getLogger(CouponService.class);
+
+    private static final String ALPHANUM = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789"; // no confusing chars, 32 symbols
+    private static final String PREFIX = "RBU-";
+    private static final int SUFFIX_LENGTH = 6;
+    private static final String DEV_SECRET = "rbu-smart-canteen-coupon-secret";
+    private static final String INSERT_SQL =
+            "INSERT INTO coupons (code, order_id, created_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String SCAN_SQL = "SELECT order_id, code FROM coupons";
+
     @Autowired
     private CouponRepository couponRepository;
-
     @Autowired
     private OrderRepository orderRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.coupons.secret:}")
+    private String secret;
+
+    private SecretKeySpec key;
+    // Highest order id whose coupon predates derived codes; unbounded until the startup scan has run
+    private final AtomicLong legacyMaxOrderId = new AtomicLong(Long.MAX_VALUE);
+
+    @PostConstruct
+    public void init() {
+        if (secret == null || secret.isBlank()) {
+            // Codes are the pickup credential; with a public secret anyone could mint them
+            if (!environment.acceptsProfiles(Profiles.of("dev"))) {
+                throw new IllegalStateException("app.coupons.secret must be set (the development secret is only used with the dev profile)");
+            }
+            log.warn("app.coupons.secret is not set, using the development coupon secret (dev profile)");
+            secret = DEV_SECRET;
+        }
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
 
-    private static final String ALPHANUM = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789"; // no confusing chars
-    private static final SecureRandom RAND = new SecureRandom();
+    @EventListener(ApplicationReadyEvent.class)
+    public void findLegacyCodes() {
+        try {
+            AtomicLong max = new AtomicLong(-1);
+            jdbcTemplate.query(SCAN_SQL, rs -> {
+                long orderId = rs.getLong(1);
+                if (!codeFor(orderId).equals(rs.getString(2)) && orderId > max.get()) max.set(orderId);
+            });
+            legacyMaxOrderId.set(max.get());
+        } catch (Exception e) {
+            log.warn("Could not scan coupons for legacy codes: {}", e.getMessage());
+        }
+    }
 
+    // Idempotent; ON CONFLICT covers a coupon already existing for the order
     public Coupon generateForOrder(Long orderId) {
-        Coupon existing = couponRepository.findByOrderId(orderId);
-        if (existing != null) return existing;
-        Order order = orderRepository.findById(orderId).orElseThrow();
+        String code = codeFor(orderId);
+        LocalDateTime now = LocalDateTime.now();
+        int inserted = jdbcTemplate.update(INSERT_SQL, code, orderId, Timestamp.valueOf(now));
+        if (inserted == 0 && orderId <= legacyMaxOrderId.get()) {
+            // The order may already hold a random legacy code
+            Coupon existing = couponRepository.findByOrderId(orderId);
+            if (existing != null) return existing;
+        }
         Coupon coupon = new Coupon();
-        coupon.setOrder(order);
-        coupon.setCode(generateCode(orderId));
-        coupon.setCreatedAt(LocalDateTime.now());
-        return couponRepository.save(coupon);
+        coupon.setOrder(orderRepository.getReferenceById(orderId));
+        coupon.setCode(code);
+        coupon.setCreatedAt(now);
+        return coupon;
     }
 
     public Coupon getByOrderId(Long orderId) {
         return couponRepository.findByOrderId(orderId);
     }
 
-    public Coupon getByCode(String code) { return couponRepository.findByCode(code); }
+    // Forged or mistyped codes are rejected without touching the DB
+    public Coupon getByCode(String code) {
+        if (!isAuthentic(code)) return null;
+        return couponRepository.findByCode(code);
+    }
+
+    // True if the code is a derived code for its order id, or could be a legacy code (then the DB decides)
+    public boolean isAuthentic(String code) {
+        long orderId = orderIdOf(code);
+        if (orderId < 0) return false;
+        byte[] expected = codeFor(orderId).getBytes(StandardCharsets.US_ASCII);
+        if (MessageDigest.isEqual(expected, code.getBytes(StandardCharsets.US_ASCII))) return true;
+        return orderId <= legacyMaxOrderId.get();
+    }
 
-    private String generateCode(Long orderId) {
-        StringBuilder sb = new StringBuilder("RBU");
-        sb.append("-").append(orderId);
-        sb.append("-");
-        for (int i = 0; i < 6; i++) {
-            sb.append(ALPHANUM.charAt(RAND.nextInt(ALPHANUM.length())));
+    // Order id from "RBU-{id}-XXXXXX", or -1 if the code is malformed
+    public static long orderIdOf(String code) {
+        if (code == null || !code.startsWith(PREFIX)) return -1;
+        int dash = code.indexOf('-', PREFIX.length());
+        if (dash < 0 || code.length() - dash - 1 != SUFFIX_LENGTH) return -1;
+        try {
+            return Long.parseLong(code.substring(PREFIX.length(), dash));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    String codeFor(long orderId) {
+        byte[] mac;
+        try {
+            Mac hmac = Mac.getInstance("HmacSHA256");
+            hmac.init(key);
+            mac = hmac.doFinal(Long.toString(orderId).getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        // 5 bits per symbol, 30 bits of the MAC in total
+        long bits = ((mac[0] & 0xFFL) << 24) | ((mac[1] & 0xFFL) << 16) | ((mac[2] & 0xFFL) << 8) | (mac[3] & 0xFFL);
+        StringBuilder sb = new StringBuilder(PREFIX).append(orderId).append('-');
+        for (int i = SUFFIX_LENGTH - 1; i >= 0; i--) {
+            sb.append(ALPHANUM.charAt((int) ((bits >>> (i * 5)) & 31)));
         }
-        return sb.toString().toUpperCase(Locale.ROOT);
+        return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,12 @@ package com.rbu.backend.service;
 import com.rbu.backend.Entities.User;
 import com.rbu.backend.Repository.UserRepository;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,13 +16,41 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
+    private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Rows created before the lower-case columns existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillNormalizedColumns() {
+        try {
+            int updated = jdbcTemplate.update("UPDATE users SET username_lower = lower(username), email_lower = lower(email) "
+                    + "WHERE username_lower IS NULL OR email_lower IS NULL");
+            if (updated > 0) log.info("Backfilled normalized login columns for {} users", updated);
+        } catch (Exception e) {
+            log.warn("Could not backfill normalized login columns: {}", e.getMessage());
+        }
+    }
+
+    // Username or email, case-insensitive; a username match wins if both exist
+    public User findByLoginIdentifier(String identifier) {
+        String normalized = identifier.trim().toLowerCase(Locale.ROOT);
+        User byEmail = null;
+        for (User user : userRepository.findByLoginIdentifier(normalized)) {
+            if (normalized.equals(user.getUsernameLower())) return user;
+            byEmail = user;
+        }
+        return byEmail;
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -0,0 +1,95 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.Entities.OtpToken;
+import com.rbu.backend.Repository.OtpTokenRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// OTP state in the otp_tokens table, shared by every node. Expired and stale rows are purged in the background.
+@Service
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "db")
+public class DbOtpStore implements OtpStore {
+    private static final Logger log = LoggerFactory.getLogger(DbOtpStore.class);
+
+    @Autowired
+    private OtpTokenRepository otpTokenRepository;
+
+    @Value("${app.otp.verification-ttl-minutes:30}")
+    private long verificationTtlMinutes;
+
+    @Override
+    @Transactional
+    public void issue(String email, String otp, Duration ttl) {
+        otpTokenRepository.deleteByEmail(email);
+        OtpToken token = new OtpToken();
+        token.setEmail(email);
+        token.setOtp(otp);
+        token.setCreatedAt(LocalDateTime.now());
+        token.setExpiresAt(LocalDateTime.now().plus(ttl));
+        otpTokenRepository.save(token);
+    }
+
+    @Override
+    @Transactional
+    public Result verify(String email, String otp) {
+        OtpToken token = otpTokenRepository.findByEmail(email).orElse(null);
+        if (token == null || token.getVerifiedAt() != null) return Result.of(Status.NOT_FOUND);
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            otpTokenRepository.delete(token);
+            return Result.of(Status.EXPIRED);
+        }
+        token.setAttempts(token.getAttempts() + 1);
+        if (token.getAttempts() > MAX_ATTEMPTS) {
+            otpTokenRepository.delete(token);
+            return Result.of(Status.TOO_MANY_ATTEMPTS);
+        }
+        if (!MessageDigest.isEqual(token.getOtp().getBytes(StandardCharsets.UTF_8), otp.getBytes(StandardCharsets.UTF_8))) {
+            otpTokenRepository.save(token);
+            return Result.of(Status.INVALID);
+        }
+        token.setVerificationId(UUID.randomUUID().toString());
+        token.setVerifiedAt(LocalDateTime.now());
+        otpTokenRepository.save(token);
+        return new Result(Status.VERIFIED, token.getVerificationId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String verifiedEmail(String verificationId) {
+        LocalDateTime oldest = LocalDateTime.now().minusMinutes(verificationTtlMinutes);
+        return otpTokenRepository.findByVerificationId(verificationId)
+                .filter(t -> t.getVerifiedAt() != null && t.getVerifiedAt().isAfter(oldest))
+                .map(OtpToken::getEmail)
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public void complete(String verificationId) {
+        otpTokenRepository.findByVerificationId(verificationId).ifPresent(otpTokenRepository::delete);
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int removed = otpTokenRepository.deleteExpired(now, now.minusMinutes(verificationTtlMinutes));
+            if (removed > 0) log.info("Purged {} expired OTP rows", removed);
+        } catch (Exception e) {
+            log.warn("OTP purge failed: {}", e.getMessage());
+        }
+    }
+}
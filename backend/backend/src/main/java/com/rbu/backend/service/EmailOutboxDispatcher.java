@@ -0,0 +1,194 @@
+package com.rbu.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Drains email_outbox on one background thread. Rows are claimed in batches with SKIP LOCKED and a lease,
+// so several nodes can run this safely; each batch goes out over a single SMTP connection.
+// Failures are retried with exponential backoff and jitter, and give up after maxAttempts.
+@Service
+public class EmailOutboxDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final String CLAIM_SQL =
+            "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = ? WHERE id IN ("
+                    + "SELECT id FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= ? "
+                    + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) "
+                    + "RETURNING id, recipient, subject, body, attempts";
+    private static final String SENT_SQL =
+            "UPDATE email_outbox SET status = 'SENT', sent_at = ?, last_error = NULL WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE email_outbox SET status = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${app.mail.outbox.batch-size:20}")
+    private int batchSize;
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${app.mail.outbox.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+    @Value("${app.mail.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+    @Value("${app.mail.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+    @Value("${app.mail.outbox.retain-sent-hours:24}")
+    private long retainSentHours;
+
+    // One drain running plus at most one queued wake-up; further wake-ups are redundant and dropped
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), r -> {
+                Thread t = new Thread(r, "email-outbox");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    @PostConstruct
+    public void configureTransport() {
+        // Protocol tracing stays off whatever the properties say, and a stuck server cannot hang the dispatcher
+        if (mailSender instanceof JavaMailSenderImpl impl) {
+            Properties props = new Properties();
+            props.putAll(impl.getJavaMailProperties());
+            props.setProperty("mail.debug", "false");
+            props.putIfAbsent("mail.smtp.connectiontimeout", "10000");
+            props.putIfAbsent("mail.smtp.timeout", "10000");
+            props.putIfAbsent("mail.smtp.writetimeout", "10000");
+            impl.setJavaMailProperties(props);
+        }
+    }
+
+    public void wakeUp() {
+        executor.execute(this::drain);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:10000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.cleanup-interval-ms:3600000}")
+    public void deleteOldSent() {
+        try {
+            jdbcTemplate.update("DELETE FROM email_outbox WHERE status = 'SENT' AND sent_at < ?",
+                    Timestamp.valueOf(LocalDateTime.now().minusHours(retainSentHours)));
+        } catch (Exception e) {
+            log.warn("Email outbox cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    void drain() {
+        try {
+            while (true) {
+                LocalDateTime now = LocalDateTime.now();
+                List<OutboxMessage> batch = jdbcTemplate.query(CLAIM_SQL,
+                        (rs, i) -> new OutboxMessage(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5)),
+                        Timestamp.valueOf(now.plusSeconds(leaseSeconds)), Timestamp.valueOf(now), batchSize);
+                if (batch.isEmpty()) return;
+                record(batch, sendBatch(batch));
+                if (batch.size() < batchSize) return;
+            }
+        } catch (Exception e) {
+            log.warn("Email outbox drain failed: {}", e.getMessage());
+        }
+    }
+
+    // Sends the batch over one connection; returns the error per message id for the ones that failed
+    Map<Long, String> sendBatch(List<OutboxMessage> batch) {
+        Map<SimpleMailMessage, OutboxMessage> byMessage = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            OutboxMessage m = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(m.recipient);
+            message.setSubject(m.subject);
+            message.setText(m.body);
+            messages[i] = message;
+            byMessage.put(message, m);
+        }
+        Map<Long, String> failures = new HashMap<>();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                for (OutboxMessage m : batch) failures.put(m.id, e.getMessage());
+            }
+            e.getFailedMessages().forEach((message, cause) -> {
+                OutboxMessage m = byMessage.get(message);
+                if (m != null) failures.put(m.id, cause.getMessage());
+            });
+        } catch (MailException e) {
+            for (OutboxMessage m : batch) failures.put(m.id, e.getMessage());
+        }
+        return failures;
+    }
+
+    private void record(List<OutboxMessage> batch, Map<Long, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> sent = new ArrayList<>();
+        List<Object[]> retries = new ArrayList<>();
+        for (OutboxMessage m : batch) {
+            String error = failures.get(m.id);
+            if (error == null) {
+                sent.add(new Object[]{Timestamp.valueOf(now), m.id});
+                continue;
+            }
+            boolean giveUp = m.attempts >= maxAttempts;
+            String trimmed = error.length() > 500 ? error.substring(0, 500) : error;
+            retries.add(new Object[]{giveUp ? "FAILED" : "PENDING", Timestamp.valueOf(now.plus(backoff(m.attempts))), trimmed, m.id});
+            if (giveUp) log.warn("Giving up on outbox email {} after {} attempts: {}", m.id, m.attempts, error);
+        }
+        if (!sent.isEmpty()) jdbcTemplate.batchUpdate(SENT_SQL, sent);
+        if (!retries.isEmpty()) jdbcTemplate.batchUpdate(RETRY_SQL, retries);
+    }
+
+    Duration backoff(int attempts) {
+        long seconds = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(20, Math.max(0, attempts - 1)));
+        long jitter = ThreadLocalRandom.current().nextLong(seconds / 4 + 1);
+        return Duration.ofSeconds(seconds + jitter);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static class OutboxMessage {
+        private final long id;
+        private final String recipient;
+        private final String subject;
+        private final String body;
+        private final int attempts;
+
+        OutboxMessage(long id, String recipient, String subject, String body, int attempts) {
+            this.id = id;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.attempts = attempts;
+        }
+    }
+}
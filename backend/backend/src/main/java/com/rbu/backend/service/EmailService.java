@@ -1,20 +1,44 @@
 package com.rbu.backend.service;
 
+import com.rbu.backend.Entities.EmailOutbox;
+import com.rbu.backend.Repository.EmailOutboxRepository;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
 
+// Mail is queued in email_outbox as part of the caller's transaction; EmailOutboxDispatcher delivers it
 @Service
 public class EmailService {
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
 
+    @Transactional
     public void sendOtp(String to, String otp) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject("Your RBU Smart Canteen OTP");
-        message.setText("Your OTP is: " + otp + "\nIt will expire in 10 minutes.");
-        mailSender.send(message);
+        enqueue(to, "Your RBU Smart Canteen OTP", "Your OTP is: " + otp + "\nIt will expire in 10 minutes.");
+    }
+
+    private void enqueue(String to, String subject, String body) {
+        EmailOutbox mail = new EmailOutbox();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setBody(body);
+        mail.setStatus("PENDING");
+        mail.setCreatedAt(LocalDateTime.now());
+        mail.setNextAttemptAt(mail.getCreatedAt());
+        emailOutboxRepository.save(mail);
+        // Wake the dispatcher once the row is visible instead of waiting for its next poll
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emailOutboxDispatcher.wakeUp();
+            }
+        });
     }
 }
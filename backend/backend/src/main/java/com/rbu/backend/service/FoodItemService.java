@@ -13,6 +13,12 @@ import java.util.Optional;
 public class FoodItemService {
     @Autowired
     private FoodItemRepository foodItemRepository;
+    @Autowired
+    private MenuPayloadCache menuPayloadCache;
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+    @Autowired
+    private StockService stockService;
 
     public List<FoodItem> getAllFoodItems() {
         return foodItemRepository.findAll();
@@ -26,12 +32,32 @@ public class FoodItemService {
         return foodItemRepository.findByCategory(category);
     }
 
+    public MenuPayload getAllFoodItemsPayload() {
+        return menuPayloadCache.get("all", this::getAllFoodItems);
+    }
+
+    public MenuPayload getAvailableFoodItemsPayload() {
+        return menuPayloadCache.get("available", this::getAvailableFoodItems);
+    }
+
+    public MenuPayload getFoodItemsByCategoryPayload(String category) {
+        return menuPayloadCache.get("category:" + category, () -> getFoodItemsByCategory(category));
+    }
+
+    public List<FoodItem> searchFoodItems(String query, int limit, boolean availableOnly) {
+        return menuSearchIndex.search(query, Math.min(Math.max(limit, 1), 50), availableOnly);
+    }
+
     public Optional<FoodItem> getFoodItemById(Long id) {
         return foodItemRepository.findById(id);
     }
 
     public FoodItem createFoodItem(FoodItem foodItem) {
-        return foodItemRepository.save(foodItem);
+        FoodItem saved = foodItemRepository.save(foodItem);
+        if (saved.getStockQuantity() != null) stockService.setStock(saved.getId(), saved.getStockQuantity());
+        menuPayloadCache.invalidate();
+        menuSearchIndex.upsert(saved);
+        return saved;
     }
 
     public FoodItem updateFoodItem(Long id, FoodItem updated) {
@@ -41,18 +67,34 @@ public class FoodItemService {
             item.setPrice(updated.getPrice());
             item.setAvailable(updated.isAvailable());
             item.setEstimatedPrepTime(updated.getEstimatedPrepTime());
-            return foodItemRepository.save(item);
+            FoodItem saved = foodItemRepository.save(item);
+            menuPayloadCache.invalidate();
+            menuSearchIndex.upsert(saved);
+            return saved;
         }).orElseThrow();
     }
 
     public void deleteFoodItem(Long id) {
         foodItemRepository.deleteById(id);
+        menuPayloadCache.invalidate();
+        menuSearchIndex.remove(id);
     }
 
     public FoodItem setAvailability(Long id, boolean available) {
         return foodItemRepository.findById(id).map(item -> {
             item.setAvailable(available);
-            return foodItemRepository.save(item);
+            FoodItem saved = foodItemRepository.save(item);
+            menuPayloadCache.invalidate();
+            menuSearchIndex.upsert(saved);
+            return saved;
         }).orElseThrow();
     }
+
+    public FoodItem setStock(Long id, Integer quantity) {
+        foodItemRepository.findById(id).orElseThrow();
+        stockService.setStock(id, quantity);
+        FoodItem saved = foodItemRepository.findById(id).orElseThrow();
+        menuSearchIndex.upsert(saved);
+        return saved;
+    }
 }
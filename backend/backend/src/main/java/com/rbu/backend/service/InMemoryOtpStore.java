@@ -0,0 +1,108 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.util.HashedTimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Single-node OTP store. Entries expire through a timing wheel; each expiry task removes only the
+// exact entry it was scheduled for, so a re-issued OTP is never dropped by the old timeout.
+@Service
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+    private final ConcurrentHashMap<String, Pending> pendingByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Verified> verifiedById = new ConcurrentHashMap<>();
+    private final HashedTimingWheel wheel = new HashedTimingWheel("otp-expiry", 1000, 1024);
+
+    @Value("${app.otp.verification-ttl-minutes:30}")
+    private long verificationTtlMinutes;
+
+    @Override
+    public void issue(String email, String otp, Duration ttl) {
+        String key = normalize(email);
+        Pending pending = new Pending(email.trim(), otp, System.currentTimeMillis() + ttl.toMillis());
+        pendingByEmail.put(key, pending);
+        wheel.schedule(() -> pendingByEmail.remove(key, pending), ttl.toMillis());
+    }
+
+    @Override
+    public Result verify(String email, String otp) {
+        String key = normalize(email);
+        Pending pending = pendingByEmail.get(key);
+        if (pending == null) return Result.of(Status.NOT_FOUND);
+        // The wheel ticks once a second, so check the deadline too
+        if (pending.expiresAt <= System.currentTimeMillis()) {
+            pendingByEmail.remove(key, pending);
+            return Result.of(Status.EXPIRED);
+        }
+        if (pending.attempts.incrementAndGet() > MAX_ATTEMPTS) {
+            pendingByEmail.remove(key, pending);
+            return Result.of(Status.TOO_MANY_ATTEMPTS);
+        }
+        if (!MessageDigest.isEqual(pending.otp.getBytes(StandardCharsets.UTF_8), otp.getBytes(StandardCharsets.UTF_8))) {
+            return Result.of(Status.INVALID);
+        }
+        // Only one concurrent verify can consume the OTP
+        if (!pendingByEmail.remove(key, pending)) return Result.of(Status.NOT_FOUND);
+
+        String verificationId = UUID.randomUUID().toString();
+        long ttlMillis = Duration.ofMinutes(verificationTtlMinutes).toMillis();
+        Verified verified = new Verified(pending.email, System.currentTimeMillis() + ttlMillis);
+        verifiedById.put(verificationId, verified);
+        wheel.schedule(() -> verifiedById.remove(verificationId, verified), ttlMillis);
+        return new Result(Status.VERIFIED, verificationId);
+    }
+
+    @Override
+    public String verifiedEmail(String verificationId) {
+        Verified verified = verifiedById.get(verificationId);
+        if (verified == null || verified.expiresAt <= System.currentTimeMillis()) return null;
+        return verified.email;
+    }
+
+    @Override
+    public void complete(String verificationId) {
+        verifiedById.remove(verificationId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Pending {
+        private final String email;
+        private final String otp;
+        private final long expiresAt;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        Pending(String email, String otp, long expiresAt) {
+            this.email = email;
+            this.otp = otp;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class Verified {
+        private final String email;
+        private final long expiresAt;
+
+        Verified(String email, long expiresAt) {
+            this.email = email;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
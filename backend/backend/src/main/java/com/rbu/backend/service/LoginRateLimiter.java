@@ -0,0 +1,29 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.util.TokenBucketLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Login attempts are limited per client IP (generous, students share campus NAT) and per
+// identifier (tight, to stop password guessing against one account).
+// Behind a reverse proxy, set server.forward-headers-strategy so getRemoteAddr() is the client.
+@Component
+public class LoginRateLimiter {
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byIdentifier;
+
+    public LoginRateLimiter(@Value("${app.auth.login-ip-burst:30}") int ipBurst,
+                            @Value("${app.auth.login-ip-per-second:2}") double ipPerSecond,
+                            @Value("${app.auth.login-identifier-burst:5}") int identifierBurst,
+                            @Value("${app.auth.login-identifier-per-minute:3}") double identifierPerMinute) {
+        this.byIp = new TokenBucketLimiter(ipBurst, ipPerSecond, 32, 2048);
+        this.byIdentifier = new TokenBucketLimiter(identifierBurst, identifierPerMinute / 60.0, 64, 2048);
+    }
+
+    // 0 when the attempt may proceed, otherwise milliseconds to wait
+    public long tryAcquire(String ip, String normalizedIdentifier) {
+        long wait = byIp.tryAcquire(ip);
+        if (wait > 0) return wait;
+        return byIdentifier.tryAcquire(normalizedIdentifier);
+    }
+}
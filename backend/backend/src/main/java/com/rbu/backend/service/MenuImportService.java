@@ -0,0 +1,287 @@
+package com.rbu.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Bulk upsert of menu items from CSV or a JSON array.
+// Rows are parsed one at a time from the request stream and written with batched JDBC statements in one transaction.
+@Service
+public class MenuImportService {
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ROWS = 10_000;
+
+    private static final String UPDATE_SQL =
+            "UPDATE food_items SET name = ?, category = ?, price = ?, available = ?, estimated_prep_time = ? WHERE id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO food_items (name, category, price, available, estimated_prep_time, total_orders) VALUES (?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MenuPayloadCache menuPayloadCache;
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Transactional
+    public Map<String, Object> importCsv(InputStream in) throws IOException {
+        Import run = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) return run.finish();
+        List<String> header = parseCsvLine(stripBom(headerLine));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            // Stop reading at the cap instead of consuming the rest of the upload
+            if (run.isFull()) {
+                run.truncate();
+                break;
+            }
+            List<String> values = parseCsvLine(line);
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                row.put(header.get(i).trim(), values.get(i));
+            }
+            run.accept(row);
+        }
+        return run.finish();
+    }
+
+    @Transactional
+    public Map<String, Object> importJson(InputStream in) throws IOException {
+        Import run = new Import();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of menu items");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (run.isFull()) {
+                    run.truncate();
+                    break;
+                }
+                Map<?, ?> obj = objectMapper.readValue(parser, Map.class);
+                Map<String, String> row = new HashMap<>();
+                obj.forEach((k, v) -> row.put(String.valueOf(k), v == null ? null : String.valueOf(v)));
+                run.accept(row);
+            }
+        }
+        return run.finish();
+    }
+
+    private class Import {
+        private final Map<Long, String> nameById = new HashMap<>();
+        private final Map<String, Long> idByName = new HashMap<>();
+        private final Set<String> seenNames = new HashSet<>();
+        private final List<Object[]> updates = new ArrayList<>();
+        private final List<Object[]> inserts = new ArrayList<>();
+        private final List<Map<String, Object>> results = new ArrayList<>();
+        private int rowNumber;
+        private int created;
+        private int updated;
+        private int rejected;
+        private boolean truncated;
+
+        Import() {
+            jdbcTemplate.query("SELECT id, name FROM food_items", rs -> {
+                long id = rs.getLong(1);
+                String name = rs.getString(2);
+                nameById.put(id, name);
+                idByName.put(normalize(name), id);
+            });
+        }
+
+        boolean isFull() {
+            return rowNumber >= MAX_ROWS;
+        }
+
+        void truncate() {
+            truncated = true;
+        }
+
+        void accept(Map<String, String> raw) {
+            rowNumber++;
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("row", rowNumber);
+
+            List<String> errors = new ArrayList<>();
+            Long id = parseLong(raw.get("id"), "id", errors);
+            String name = trimToNull(raw.get("name"));
+            String category = trimToNull(raw.get("category"));
+            Double price = parseDouble(raw.get("price"), errors);
+            Boolean available = parseBoolean(raw.get("available"), errors);
+            Long prep = parseLong(raw.get("estimatedPrepTime"), "estimatedPrepTime", errors);
+
+            if (name == null) errors.add("name is required");
+            if (category == null) errors.add("category is required");
+            if (price == null && errors.stream().noneMatch(e -> e.startsWith("price"))) errors.add("price is required");
+            if (price != null && (!Double.isFinite(price) || price < 0)) errors.add("price must be a finite number >= 0");
+            if (prep == null && errors.stream().noneMatch(e -> e.startsWith("estimatedPrepTime"))) errors.add("estimatedPrepTime is required");
+            if (prep != null && (prep < 0 || prep > 600)) errors.add("estimatedPrepTime must be between 0 and 600");
+            if (id != null && !nameById.containsKey(id)) errors.add("No menu item with id " + id);
+            if (name != null && !seenNames.add(normalize(name))) errors.add("Duplicate name in this import");
+
+            result.put("name", name);
+            if (!errors.isEmpty()) {
+                reject(result, errors);
+                return;
+            }
+
+            // Rows without an id update the item with the same name, otherwise they are created
+            Long target = id != null ? id : idByName.get(normalize(name));
+            if (target != null) {
+                updates.add(new Object[]{name, category, price, available, prep.intValue(), target});
+                result.put("id", target);
+                result.put("status", "UPDATED");
+                updated++;
+            } else {
+                inserts.add(new Object[]{name, category, price, available, prep.intValue()});
+                result.put("status", "CREATED");
+                created++;
+            }
+            results.add(result);
+            if (updates.size() >= BATCH_SIZE) flushUpdates();
+            if (inserts.size() >= BATCH_SIZE) flushInserts();
+        }
+
+        private void reject(Map<String, Object> result, List<String> errors) {
+            result.put("status", "REJECTED");
+            result.put("errors", errors);
+            results.add(result);
+            rejected++;
+        }
+
+        Map<String, Object> finish() {
+            flushUpdates();
+            flushInserts();
+            if (created > 0) {
+                Map<String, Long> ids = new HashMap<>();
+                jdbcTemplate.query("SELECT id, name FROM food_items",
+                        rs -> { ids.put(normalize(rs.getString(2)), rs.getLong(1)); });
+                for (Map<String, Object> r : results) {
+                    if ("CREATED".equals(r.get("status"))) r.put("id", ids.get(normalize((String) r.get("name"))));
+                }
+            }
+            if (created + updated > 0) invalidateAfterCommit();
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("totalRows", rowNumber);
+            report.put("created", created);
+            report.put("updated", updated);
+            report.put("rejected", rejected);
+            report.put("truncated", truncated);
+            if (truncated) report.put("message", "Import is limited to " + MAX_ROWS + " rows; remaining rows were not read");
+            report.put("rows", results);
+            return report;
+        }
+
+        private void flushUpdates() {
+            if (updates.isEmpty()) return;
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            updates.clear();
+        }
+
+        private void flushInserts() {
+            if (inserts.isEmpty()) return;
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            inserts.clear();
+        }
+    }
+
+    // One invalidation for the whole import, and only once the rows are visible to other transactions
+    private void invalidateAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                menuPayloadCache.invalidate();
+                menuSearchIndex.rebuild();
+            }
+        });
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    sb.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    sb.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        fields.add(sb.toString());
+        return fields;
+    }
+
+    private static String stripBom(String s) {
+        return !s.isEmpty() && s.charAt(0) == '\uFEFF' ? s.substring(1) : s;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String trimToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    private static Long parseLong(String s, String field, List<String> errors) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            return Long.valueOf(s.trim().replaceAll("\\.0+$", ""));
+        } catch (NumberFormatException e) {
+            errors.add(field + " must be a whole number");
+            return null;
+        }
+    }
+
+    // Missing means available; anything other than true/false is rejected rather than read as false
+    private static Boolean parseBoolean(String s, List<String> errors) {
+        if (s == null || s.isBlank()) return true;
+        String v = s.trim();
+        if (v.equalsIgnoreCase("true")) return true;
+        if (v.equalsIgnoreCase("false")) return false;
+        errors.add("available must be true or false");
+        return null;
+    }
+
+    private static Double parseDouble(String s, List<String> errors) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            return Double.valueOf(s.trim());
+        } catch (NumberFormatException e) {
+            errors.add("price must be a number");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rbu.backend.service;
+
+// Pre-encoded JSON for one menu view at one menu version
+public class MenuPayload {
+    private final long version;
+    private final byte[] json;
+    private final byte[] gzip; // null when the payload is too small to be worth compressing
+    private final String etag;
+
+    public MenuPayload(long version, byte[] json, byte[] gzip, String etag) {
+        this.version = version;
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+    }
+
+    public long getVersion() { return version; }
+    public byte[] getJson() { return json; }
+    public byte[] getGzip() { return gzip; }
+    public String getEtag() { return etag; }
+
+    // Different bytes on the wire need a different strong validator
+    public String getGzipEtag() { return etag.substring(0, etag.length() - 1) + "-gz\""; }
+}
@@ -0,0 +1,85 @@
+package com.rbu.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbu.backend.Entities.FoodItem;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class MenuPayloadCache {
+    private static final int MAX_VIEWS = 64; // all, available and one per category
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.menu.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ConcurrentHashMap<String, MenuPayload> payloads = new ConcurrentHashMap<>();
+
+    public MenuPayload get(String view, Supplier<List<FoodItem>> loader) {
+        long current = version.get();
+        MenuPayload cached = payloads.get(view);
+        if (cached != null && cached.getVersion() == current) return cached;
+
+        List<FoodItem> items = loader.get();
+        MenuPayload built = encode(current, items);
+        // A mutation that raced with the load bumps the version, so a stale payload is never served twice
+        if (!items.isEmpty() && version.get() == current
+                && (payloads.size() < MAX_VIEWS || payloads.containsKey(view))) {
+            payloads.put(view, built);
+        }
+        return built;
+    }
+
+    // Called after every menu mutation; the next GET of each view re-encodes once
+    public void invalidate() {
+        version.incrementAndGet();
+        payloads.clear();
+    }
+
+    public long getVersion() { return version.get(); }
+
+    private MenuPayload encode(long v, List<FoodItem> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+            return new MenuPayload(v, json, gzip, etagOf(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+            gz.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    // Content-derived, so a mutation that leaves a view unchanged keeps answering 304
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.Entities.FoodItem;
+import com.rbu.backend.Repository.FoodItemRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index + prefix trie over item name and category tokens.
+// Reads take the shared lock; FoodItemService mutations update single items under the exclusive lock.
+@Component
+public class MenuSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(MenuSearchIndex.class);
+
+    private static final double EXACT_SCORE = 3.0;
+    private static final double PREFIX_SCORE = 2.0;
+    private static final double FUZZY_SCORE = 1.5; // minus 0.5 per edit
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+    @Autowired
+    private PopularityService popularityService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, FoodItem> items = new HashMap<>();
+    private final Map<Long, Set<String>> tokensByItem = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+    private volatile boolean built;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Menu search index not built at startup, will retry on first search: {}", e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        List<FoodItem> all = foodItemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            tokensByItem.clear();
+            postings.clear();
+            root.children.clear();
+            for (FoodItem item : all) addInternal(item);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(FoodItem item) {
+        if (item == null || item.getId() == null) return;
+        lock.writeLock().lock();
+        try {
+            removeInternal(item.getId());
+            addInternal(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<FoodItem> search(String query, int limit, boolean availableOnly) {
+        if (!built) rebuild();
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            // Every query term has to match (exactly, by prefix or within the edit budget); scores add up
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                        e.setValue(e.getValue() + termScores.get(e.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+
+            List<FoodItem> ranked = new ArrayList<>(scores.size());
+            for (Long id : scores.keySet()) {
+                FoodItem item = items.get(id);
+                if (item != null && (!availableOnly || item.isAvailable())) ranked.add(item);
+            }
+            final Map<Long, Double> finalScores = scores;
+            ranked.sort(Comparator.<FoodItem>comparingDouble(fi -> finalScores.get(fi.getId())).reversed()
+                    .thenComparing(Comparator.comparingLong((FoodItem fi) -> popularityService.getTotal(fi.getId())).reversed())
+                    .thenComparing(FoodItem::getName, String.CASE_INSENSITIVE_ORDER));
+            return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> best = new HashMap<>();
+        TrieNode node = root;
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = node.children.get(term.charAt(i));
+        }
+        if (node != null) {
+            List<String> words = new ArrayList<>();
+            collectWords(node, words);
+            for (String word : words) {
+                credit(best, word, word.equals(term) ? EXACT_SCORE : PREFIX_SCORE);
+            }
+        }
+        int maxEdits = term.length() < 3 ? 0 : (term.length() <= 4 ? 1 : 2);
+        if (maxEdits > 0) {
+            int[] firstRow = new int[term.length() + 1];
+            for (int i = 0; i < firstRow.length; i++) firstRow[i] = i;
+            for (Map.Entry<Character, TrieNode> child : root.children.entrySet()) {
+                fuzzyWalk(child.getValue(), child.getKey(), term, firstRow, maxEdits, best);
+            }
+        }
+        return best;
+    }
+
+    // Levenshtein rows computed along trie paths; a branch is dropped once every cell exceeds the budget
+    private void fuzzyWalk(TrieNode node, char c, String term, int[] prevRow, int maxEdits, Map<Long, Double> best) {
+        int[] row = new int[prevRow.length];
+        row[0] = prevRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int cost = term.charAt(i - 1) == c ? 0 : 1;
+            row[i] = Math.min(Math.min(row[i - 1] + 1, prevRow[i] + 1), prevRow[i - 1] + cost);
+            rowMin = Math.min(rowMin, row[i]);
+        }
+        int distance = row[row.length - 1];
+        if (node.word != null && distance > 0 && distance <= maxEdits) {
+            credit(best, node.word, FUZZY_SCORE - 0.5 * distance);
+        }
+        if (rowMin <= maxEdits) {
+            for (Map.Entry<Character, TrieNode> child : node.children.entrySet()) {
+                fuzzyWalk(child.getValue(), child.getKey(), term, row, maxEdits, best);
+            }
+        }
+    }
+
+    private void credit(Map<Long, Double> best, String word, double score) {
+        Set<Long> ids = postings.get(word);
+        if (ids == null) return;
+        for (Long id : ids) best.merge(id, score, Math::max);
+    }
+
+    private void collectWords(TrieNode node, List<String> out) {
+        if (node.word != null) out.add(node.word);
+        for (TrieNode child : node.children.values()) collectWords(child, out);
+    }
+
+    private void addInternal(FoodItem item) {
+        Set<String> tokens = new HashSet<>(tokenize(item.getName()));
+        tokens.addAll(tokenize(item.getCategory()));
+        items.put(item.getId(), item);
+        tokensByItem.put(item.getId(), tokens);
+        for (String token : tokens) {
+            Set<Long> ids = postings.computeIfAbsent(token, t -> new HashSet<>());
+            if (ids.isEmpty()) insertWord(token);
+            ids.add(item.getId());
+        }
+    }
+
+    private void removeInternal(Long id) {
+        items.remove(id);
+        Set<String> tokens = tokensByItem.remove(id);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            if (ids == null) continue;
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+                deleteWord(token);
+            }
+        }
+    }
+
+    private void insertWord(String word) {
+        TrieNode node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.children.computeIfAbsent(word.charAt(i), k -> new TrieNode());
+        }
+        node.word = word;
+    }
+
+    // Trie nodes are left in place; a menu vocabulary is a few hundred words
+    private void deleteWord(String word) {
+        TrieNode node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.children.get(word.charAt(i));
+        }
+        if (node != null) node.word = null;
+    }
+
+    static Set<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return Set.of();
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String t : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty()) tokens.add(t);
+        }
+        return tokens;
+    }
+
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new TreeMap<>();
+        private String word; // set when a live token ends here
+    }
+}
@@ -0,0 +1,98 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.util.JwtUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Gauges for queues and caches. DB-backed values are refreshed with one query on a timer, so a
+// Prometheus scrape only reads fields; in-memory ones read the owning component directly.
+@Service
+public class OperationalMetrics {
+    private static final Logger log = LoggerFactory.getLogger(OperationalMetrics.class);
+
+    private static final String REFRESH_SQL = "SELECT "
+            + "(SELECT COUNT(*) FROM orders WHERE status IN ('PLACED', 'PREPARING')), "
+            + "(SELECT COALESCE(SUM(f.estimated_prep_time), 0) FROM orders o JOIN order_items oi ON oi.order_id = o.id "
+            + "JOIN food_items f ON f.id = oi.food_item_id WHERE o.status IN ('PLACED', 'PREPARING')), "
+            + "(SELECT COUNT(*) FROM email_outbox WHERE status = 'PENDING'), "
+            + "(SELECT COUNT(*) FROM payment_events WHERE status = 'PENDING')";
+
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordCheckService passwordCheckService;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private PaymentGateway paymentGateway;
+    @Autowired
+    private CouponRedemptionService couponRedemptionService;
+
+    private final AtomicLong activeOrders = new AtomicLong();
+    private final AtomicLong queuedPrepMinutes = new AtomicLong();
+    private final AtomicLong pendingMail = new AtomicLong();
+    private final AtomicLong pendingPaymentEvents = new AtomicLong();
+
+    @PostConstruct
+    public void register() {
+        Gauge.builder("canteen.orders.active", activeOrders, AtomicLong::get)
+                .description("Orders PLACED or PREPARING").register(registry);
+        Gauge.builder("canteen.orders.queued.prep.minutes", queuedPrepMinutes, AtomicLong::get)
+                .description("Estimated prep minutes of all active orders").baseUnit("minutes").register(registry);
+        Gauge.builder("canteen.mail.outbox.pending", pendingMail, AtomicLong::get).register(registry);
+        Gauge.builder("canteen.payment.events.pending", pendingPaymentEvents, AtomicLong::get).register(registry);
+        Gauge.builder("canteen.login.password.queue", passwordCheckService, PasswordCheckService::getQueueSize)
+                .description("Password checks waiting for a worker").register(registry);
+
+        gauge("canteen.jwt.cache.size", jwtUtil::cacheStats, "size");
+        gauge("canteen.jwt.cache.hit.ratio", jwtUtil::cacheStats, "hitRate");
+        gauge("canteen.coupons.outstanding", couponRedemptionService::getStats, "outstanding");
+        gauge("canteen.coupons.unflushed", couponRedemptionService::getStats, "unflushed");
+
+        FunctionCounter.builder("canteen.payment.gateway.calls", paymentGateway, g -> number(g.getStats(), "calls"))
+                .register(registry);
+        FunctionCounter.builder("canteen.payment.gateway.errors", paymentGateway, g -> number(g.getStats(), "errors"))
+                .register(registry);
+        for (String quantile : new String[]{"p50Ms", "p95Ms", "p99Ms", "maxMs"}) {
+            Gauge.builder("canteen.payment.gateway.latency", paymentGateway, g -> number(g.getStats(), quantile))
+                    .tag("stat", quantile).baseUnit("milliseconds").register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.refresh-interval-ms:15000}")
+    public void refresh() {
+        try {
+            jdbcTemplate.query(REFRESH_SQL, rs -> {
+                activeOrders.set(rs.getLong(1));
+                queuedPrepMinutes.set(rs.getLong(2));
+                pendingMail.set(rs.getLong(3));
+                pendingPaymentEvents.set(rs.getLong(4));
+            });
+        } catch (Exception e) {
+            log.debug("Metrics refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void gauge(String name, Supplier<Map<String, Object>> stats, String key) {
+        Gauge.builder(name, () -> number(stats.get(), key)).register(registry);
+    }
+
+    private static double number(Map<String, Object> stats, String key) {
+        Object value = stats.get(key);
+        return value instanceof Number n ? n.doubleValue() : Double.NaN;
+    }
+}
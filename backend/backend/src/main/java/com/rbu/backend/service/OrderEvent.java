@@ -0,0 +1,32 @@
+package com.rbu.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Published by OrderService when an order is placed or cancelled; in-memory counters listen for it
+public class OrderEvent {
+    public enum Type { PLACED, CANCELLED }
+
+    private final Type type;
+    private final Long orderId;
+    private final Long userId;
+    private final List<Long> itemIds;
+    private final LocalDateTime orderTime; // JVM zone, as stored on Order
+
+    public OrderEvent(Type type, Long orderId, Long userId, List<Long> itemIds, LocalDateTime orderTime) {
+        this.type = type;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.itemIds = itemIds;
+        this.orderTime = orderTime;
+    }
+
+    public Type getType() { return type; }
+    public Long getOrderId() { return orderId; }
+    public Long getUserId() { return userId; }
+    public List<Long> getItemIds() { return itemIds; }
+    public LocalDateTime getOrderTime() { return orderTime; }
+
+    // +1 for a placement, -1 for a cancellation
+    public int getDelta() { return type == Type.PLACED ? 1 : -1; }
+}
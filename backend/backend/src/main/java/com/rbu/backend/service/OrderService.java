@@ -3,12 +3,16 @@ package com.rbu.backend.service;
 import com.rbu.backend.Entities.Coupon;
 import com.rbu.backend.Entities.FoodItem;
 import com.rbu.backend.Entities.Order;
+import com.rbu.backend.Entities.OrderStatus;
 import com.rbu.backend.Entities.User;
 import com.rbu.backend.Repository.FoodItemRepository;
 import com.rbu.backend.Repository.OrderRepository;
 import com.rbu.backend.Repository.UserRepository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -16,6 +20,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+@Timed("canteen.service")
 @Service
 public class OrderService {
     @Autowired
@@ -26,6 +31,12 @@ public class OrderService {
     private UserRepository userRepository;
     @Autowired
     private CouponService couponService;
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     public List<Order> getOrdersByUser(Long userId) {
         return orderRepository.findByUserId(userId);
@@ -38,34 +49,60 @@ public class OrderService {
     public Order placeOrder(Long userId, List<Long> foodItemIds) {
         User user = userRepository.findById(userId).orElseThrow();
         List<FoodItem> items = foodItemRepository.findAllById(foodItemIds);
+        stockService.reserve(items);
         double total = items.stream().mapToDouble(FoodItem::getPrice).sum();
         Order order = new Order();
         order.setUser(user);
         order.setItems(items);
         order.setTotalAmount(total);
-        order.setStatus("PLACED");
+        order.setStatus(OrderStatus.PLACED.name());
         order.setOrderTime(LocalDateTime.now());
         
-        // Save order first to get ID
-        order = orderRepository.save(order);
-        
-        // Generate coupon and save code to order
-        Coupon coupon = couponService.generateForOrder(order.getId());
-        order.setCouponCode(coupon.getCode());
-        
-        return orderRepository.save(order);
+        try {
+            // Save order first to get ID
+            order = orderRepository.save(order);
+
+            // Generate coupon and save code to order
+            Coupon coupon = couponService.generateForOrder(order.getId());
+            order.setCouponCode(coupon.getCode());
+
+            order = orderRepository.save(order);
+        } catch (RuntimeException e) {
+            stockService.release(items);
+            throw e;
+        }
+        publish(OrderEvent.Type.PLACED, order);
+        return order;
     }
 
     public Order updateOrderStatus(Long orderId, String status) {
-        return orderRepository.findById(orderId).map(order -> {
-            order.setStatus(status);
-            if (status.equals("COMPLETED") || status.equals("CANCELLED")) {
-                order.setCompletedTime(LocalDateTime.now());
-            } else if (status.equals("READY")) {
-                order.setReadyTime(LocalDateTime.now());
-            }
-            return orderRepository.save(order);
-        }).orElseThrow();
+        OrderStatus to = OrderStatus.parse(status);
+        if (!transition(orderId, to)) {
+            Order current = orderRepository.findById(orderId).orElseThrow();
+            if (to.name().equals(current.getStatus())) return current; // repeated request, already there
+            throw new StatusTransitionException(current.getStatus(), to.name());
+        }
+        Order saved = orderRepository.findById(orderId).orElseThrow();
+        if (to == OrderStatus.CANCELLED) {
+            stockService.release(saved.getItems());
+            publish(OrderEvent.Type.CANCELLED, saved);
+        }
+        return saved;
+    }
+
+    // Moves the order to `to` if its current status allows it; false if it does not (or a concurrent
+    // request moved it first). No read beforehand: the UPDATE's WHERE clause is the check.
+    public boolean transition(Long orderId, OrderStatus to) {
+        return transition(orderId, to.sources(), to);
+    }
+
+    private boolean transition(Long orderId, List<String> from, OrderStatus to) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean applied = orderRepository.transition(orderId, from, to.name(),
+                to == OrderStatus.READY ? now : null, to.isFinal() ? now : null) == 1;
+        meterRegistry.counter("canteen.order.transitions", "to", to.name(), "result", applied ? "applied" : "rejected").increment();
+        if (applied) eventPublisher.publishEvent(new OrderStatusEvent(orderId, to));
+        return applied;
     }
 
     public List<Order> getAllOrders() {
@@ -77,12 +114,14 @@ public class OrderService {
         if (order.getUser() == null || order.getUser().getUsername() == null || !order.getUser().getUsername().equals(username)) {
             throw new RuntimeException("Unauthorized to cancel this order");
         }
-        if (!"PLACED".equals(order.getStatus())) {
+        // Students may only cancel before the kitchen starts on it
+        if (!transition(orderId, List.of(OrderStatus.PLACED.name()), OrderStatus.CANCELLED)) {
             throw new RuntimeException("Only PLACED orders can be cancelled");
         }
-        order.setStatus("CANCELLED");
-        order.setCompletedTime(LocalDateTime.now());
-        return orderRepository.save(order);
+        Order saved = orderRepository.findById(orderId).orElseThrow();
+        stockService.release(saved.getItems());
+        publish(OrderEvent.Type.CANCELLED, saved);
+        return saved;
     }
 
     public long getEstimatedWaitTime(Long orderId) {
@@ -113,4 +152,11 @@ public class OrderService {
             .filter(o -> o.getStatus().equals("PLACED") || o.getStatus().equals("PREPARING"))
             .count();
     }
-}
\ No newline at end of file
+
+    private void publish(OrderEvent.Type type, Order order) {
+        List<Long> itemIds = order.getItems() == null ? List.of()
+                : order.getItems().stream().map(FoodItem::getId).toList();
+        Long userId = order.getUser() != null ? order.getUser().getId() : null;
+        eventPublisher.publishEvent(new OrderEvent(type, order.getId(), userId, itemIds, order.getOrderTime()));
+    }
+}
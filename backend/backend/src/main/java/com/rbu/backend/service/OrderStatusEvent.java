@@ -0,0 +1,18 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.Entities.OrderStatus;
+
+// Published by OrderService for every applied status transition. Listeners that must not see
+// uncommitted changes use @TransactionalEventListener(fallbackExecution = true).
+public class OrderStatusEvent {
+    private final Long orderId;
+    private final OrderStatus status;
+
+    public OrderStatusEvent(Long orderId, OrderStatus status) {
+        this.orderId = orderId;
+        this.status = status;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public OrderStatus getStatus() { return status; }
+}
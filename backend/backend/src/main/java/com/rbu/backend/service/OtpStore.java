@@ -0,0 +1,40 @@
+package com.rbu.backend.service;
+
+import java.time.Duration;
+
+// Pending email OTPs and the verification ids handed out once an OTP is confirmed.
+// InMemoryOtpStore is the default; DbOtpStore (app.otp.store=db) keeps state in otp_tokens for multi-node setups.
+public interface OtpStore {
+    int MAX_ATTEMPTS = 5;
+
+    enum Status { VERIFIED, NOT_FOUND, EXPIRED, INVALID, TOO_MANY_ATTEMPTS }
+
+    // Replaces any OTP already pending for this email
+    void issue(String email, String otp, Duration ttl);
+
+    // On VERIFIED the pending OTP is consumed and verificationId is set
+    Result verify(String email, String otp);
+
+    // Email confirmed under this verification id, or null if unknown or expired
+    String verifiedEmail(String verificationId);
+
+    // Registration finished; the verification id can no longer be used
+    void complete(String verificationId);
+
+    final class Result {
+        private final Status status;
+        private final String verificationId;
+
+        public Result(Status status, String verificationId) {
+            this.status = status;
+            this.verificationId = verificationId;
+        }
+
+        public static Result of(Status status) {
+            return new Result(status, null);
+        }
+
+        public Status getStatus() { return status; }
+        public String getVerificationId() { return verificationId; }
+    }
+}
@@ -0,0 +1,193 @@
+package com.rbu.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbu.backend.Entities.OrderStatus;
+import com.rbu.backend.Entities.Payment;
+import com.rbu.backend.Entities.PaymentStatus;
+import com.rbu.backend.Repository.PaymentRepository;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Applies payment events exactly once. Events are inserted with ON CONFLICT DO NOTHING on the gateway's
+// event id, so redeliveries are dropped at the door; each event is then applied under a row lock in one
+// transaction together with the Payment / Order / coupon changes it causes, and marked done in that same
+// transaction. A background worker drains pending events; failures are retried with backoff.
+@Service
+public class PaymentEventProcessor {
+    private static final Logger log = LoggerFactory.getLogger(PaymentEventProcessor.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO payment_events (event_id, event_type, payload, status, attempts, next_attempt_at, received_at) "
+                    + "VALUES (?, ?, ?, 'PENDING', 0, ?, ?) ON CONFLICT (event_id) DO NOTHING";
+    private static final String CLAIM_SQL =
+            "UPDATE payment_events SET attempts = attempts + 1, next_attempt_at = ? WHERE id IN ("
+                    + "SELECT id FROM payment_events WHERE status = 'PENDING' AND next_attempt_at <= ? "
+                    + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING event_id, attempts";
+    private static final String LOCK_SQL =
+            "SELECT event_type, payload FROM payment_events WHERE event_id = ? AND status = 'PENDING' FOR UPDATE";
+    private static final String DONE_SQL =
+            "UPDATE payment_events SET status = ?, processed_at = ?, last_error = NULL WHERE event_id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE payment_events SET status = ?, next_attempt_at = ?, last_error = ? WHERE event_id = ? AND status = 'PENDING'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CouponService couponService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.payments.events.batch-size:50}")
+    private int batchSize;
+    @Value("${app.payments.events.max-attempts:10}")
+    private int maxAttempts;
+    @Value("${app.payments.events.lease-seconds:120}")
+    private long leaseSeconds;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), r -> {
+                Thread t = new Thread(r, "payment-events");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    // Returns false when this event id was already recorded
+    public boolean record(String eventId, String eventType, String payload) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(INSERT_SQL, eventId, eventType, payload, now, now) == 1;
+    }
+
+    public void wakeUp() {
+        executor.execute(this::drain);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payments.events.poll-interval-ms:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    // Applies one event now (no-op if it is already processed); used for the checkout callback
+    public void process(String eventId) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            List<String[]> rows = jdbcTemplate.query(LOCK_SQL, (rs, i) -> new String[]{rs.getString(1), rs.getString(2)}, eventId);
+            if (rows.isEmpty()) return;
+            String outcome = apply(rows.get(0)[0], rows.get(0)[1]);
+            jdbcTemplate.update(DONE_SQL, outcome, Timestamp.valueOf(LocalDateTime.now()), eventId);
+        });
+    }
+
+    void drain() {
+        try {
+            while (true) {
+                LocalDateTime now = LocalDateTime.now();
+                List<Object[]> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, i) -> new Object[]{rs.getString(1), rs.getInt(2)},
+                        Timestamp.valueOf(now.plusSeconds(leaseSeconds)), Timestamp.valueOf(now), batchSize);
+                for (Object[] event : claimed) {
+                    String eventId = (String) event[0];
+                    try {
+                        process(eventId);
+                    } catch (Exception e) {
+                        fail(eventId, (Integer) event[1], e);
+                    }
+                }
+                if (claimed.size() < batchSize) return;
+            }
+        } catch (Exception e) {
+            log.warn("Payment event drain failed: {}", e.getMessage());
+        }
+    }
+
+    private void fail(String eventId, int attempts, Exception e) {
+        boolean giveUp = attempts >= maxAttempts;
+        long delaySeconds = Math.min(3600, 5L << Math.min(10, attempts));
+        String error = String.valueOf(e.getMessage());
+        jdbcTemplate.update(RETRY_SQL, giveUp ? "FAILED" : "PENDING",
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(delaySeconds)),
+                error.length() > 500 ? error.substring(0, 500) : error, eventId);
+        if (giveUp) {
+            log.error("Payment event {} failed after {} attempts", eventId, attempts, e);
+        } else {
+            log.warn("Payment event {} failed (attempt {}): {}", eventId, attempts, error);
+        }
+    }
+
+    // Runs inside the event's transaction; returns the final event status
+    private String apply(String eventType, String payload) {
+        JsonNode payment;
+        try {
+            payment = objectMapper.readTree(payload).path("payload").path("payment").path("entity");
+        } catch (Exception e) {
+            return "IGNORED";
+        }
+        String gatewayOrderId = payment.path("order_id").asText(null);
+        String gatewayPaymentId = payment.path("id").asText(null);
+        if (gatewayOrderId == null) return "IGNORED";
+        switch (eventType) {
+            case "payment.captured":
+            case "order.paid":
+                return confirm(gatewayOrderId, gatewayPaymentId);
+            case "payment.failed":
+                return markFailed(gatewayOrderId) ? "PROCESSED" : "IGNORED";
+            default:
+                return "IGNORED";
+        }
+    }
+
+    private String confirm(String gatewayOrderId, String gatewayPaymentId) {
+        Payment payment = findPayment(gatewayOrderId);
+        if (payment == null) return "IGNORED";
+        Long orderId = payment.getOrder().getId();
+        // Conditional updates only: a concurrent cancel or a second event cannot be overwritten
+        if (paymentRepository.markSucceeded(payment.getId(), PaymentStatus.SUCCESS.sources(),
+                gatewayPaymentId, LocalDateTime.now()) == 0) {
+            return "PROCESSED"; // already applied by an earlier event
+        }
+        // Move order to PREPARING and make sure it has a coupon. An order cancelled before the money
+        // arrived gets no coupon; the event is kept as ORDER_INACTIVE so the payment can be refunded.
+        if (!orderService.transition(orderId, OrderStatus.PREPARING)) {
+            log.warn("Payment {} captured for order {} that is no longer active; no coupon issued", payment.getId(), orderId);
+            return "ORDER_INACTIVE";
+        }
+        couponService.generateForOrder(orderId);
+        return "PROCESSED";
+    }
+
+    private boolean markFailed(String gatewayOrderId) {
+        Payment payment = findPayment(gatewayOrderId);
+        if (payment == null) return false;
+        return paymentRepository.transition(payment.getId(), PaymentStatus.FAILED.sources(), PaymentStatus.FAILED.name()) == 1;
+    }
+
+    private Payment findPayment(String gatewayOrderId) {
+        Payment payment = paymentRepository.findByGatewayOrderId(gatewayOrderId);
+        // Payments created before gateway_order_id existed only have it in transactionId
+        return payment != null ? payment : paymentRepository.findByTransactionId(gatewayOrderId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
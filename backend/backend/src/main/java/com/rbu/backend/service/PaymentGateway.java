@@ -0,0 +1,52 @@
+package com.rbu.backend.service;
+
+import java.util.Map;
+
+// Payment provider behind PaymentService. RazorpayPaymentGateway is the default;
+// app.payments.gateway=stub swaps in StubPaymentGateway for tests and load runs.
+public interface PaymentGateway {
+
+    // Key id the checkout widget is opened with
+    String getKeyId();
+
+    GatewayOrder createOrder(long amountPaise, String currency, String receipt);
+
+    // Current gateway-side state of an order (status created/attempted/paid and amount paid); used by reconciliation
+    GatewayOrder fetchOrder(String gatewayOrderId);
+
+    // Checks the checkout callback signature (HMAC of "orderId|paymentId"); no network call
+    boolean verifyPaymentSignature(String gatewayOrderId, String gatewayPaymentId, String signature);
+
+    // Checks a webhook delivery: HMAC-SHA256 of the raw body with the webhook secret
+    boolean verifyWebhookSignature(String body, String signature);
+
+    // Latency and error counters for the admin metrics endpoint
+    Map<String, Object> getStats();
+
+    final class GatewayOrder {
+        private final String id;
+        private final long amount;
+        private final String currency;
+        private final String status;
+        private final long amountPaid;
+
+        public GatewayOrder(String id, long amount, String currency) {
+            this(id, amount, currency, "created", 0);
+        }
+
+        public GatewayOrder(String id, long amount, String currency, String status, long amountPaid) {
+            this.id = id;
+            this.amount = amount;
+            this.currency = currency;
+            this.status = status;
+            this.amountPaid = amountPaid;
+        }
+
+        public String getId() { return id; }
+        public long getAmount() { return amount; }
+        public String getCurrency() { return currency; }
+        public String getStatus() { return status; }
+        public long getAmountPaid() { return amountPaid; }
+        public boolean isPaid() { return "paid".equals(status); }
+    }
+}
@@ -0,0 +1,12 @@
+package com.rbu.backend.service;
+
+// The payment provider failed, timed out or is saturated
+public class PaymentGatewayException extends RuntimeException {
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
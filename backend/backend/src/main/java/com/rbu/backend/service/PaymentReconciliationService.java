@@ -0,0 +1,259 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.Entities.ReconciliationRun;
+import com.rbu.backend.Repository.ReconciliationRunRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Day-end reconciliation of payments against their orders and the gateway. Payments for orders placed in the
+// date range are streamed through a server-side cursor (fetch size = chunk size), so memory holds one chunk
+// plus the findings. Local checks run inline; gateway lookups run on a small pool, and a semaphore stops the
+// scan from getting more than a few lookups ahead. Findings go to reconciliation_issues under one run row.
+@Service
+public class PaymentReconciliationService {
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    private static final String SCAN_SQL =
+            "SELECT p.id, p.order_id, p.payment_status, p.payment_method, p.gateway_order_id, p.transaction_id, "
+                    + "p.payment_time, o.status, o.total_amount FROM payments p JOIN orders o ON o.id = p.order_id "
+                    + "WHERE o.order_time >= ? AND o.order_time < ? ORDER BY p.id";
+    private static final String INSERT_ISSUE_SQL =
+            "INSERT INTO reconciliation_issues (run_id, payment_id, order_id, issue_type, payment_status, order_status, "
+                    + "gateway_status, expected_amount, gateway_amount, detail, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PaymentGateway paymentGateway;
+    @Autowired
+    private ReconciliationRunRepository runRepository;
+
+    @Value("${app.reconciliation.chunk-size:500}")
+    private int chunkSize;
+    @Value("${app.reconciliation.stale-pending-minutes:30}")
+    private long stalePendingMinutes;
+    @Value("${app.reconciliation.gateway-concurrency:4}")
+    private int gatewayConcurrency;
+    @Value("${app.reconciliation.max-issues:10000}")
+    private int maxIssues;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${app.reconciliation.cron:0 45 23 * * *}", zone = "Asia/Kolkata")
+    public void reconcileToday() {
+        LocalDate today = LocalDate.now(IST);
+        try {
+            run(today, today);
+        } catch (IllegalStateException e) {
+            log.info("Skipping scheduled reconciliation: {}", e.getMessage());
+        }
+    }
+
+    // Dates are inclusive; throws IllegalStateException if a run is already in progress
+    public ReconciliationRun run(LocalDate from, LocalDate to) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reconciliation run is already in progress");
+        }
+        ReconciliationRun run = new ReconciliationRun();
+        run.setFromDate(from);
+        run.setToDate(to);
+        run.setStatus("RUNNING");
+        run.setStartedAt(LocalDateTime.now());
+        run = runRepository.save(run);
+
+        Scan scan = new Scan(run.getId());
+        AtomicInteger threadSeq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(gatewayConcurrency, r -> {
+            Thread t = new Thread(r, "reconcile-" + threadSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        int maxInFlight = gatewayConcurrency * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long started = System.currentTimeMillis();
+        try {
+            stream(from, to, payment -> {
+                scan.scanned++;
+                checkLocally(payment, scan);
+                if (needsGatewayCheck(payment, scan) && !scan.gatewayUnavailable.get()) {
+                    inFlight.acquireUninterruptibly();
+                    pool.execute(() -> {
+                        try {
+                            checkGateway(payment, scan);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            });
+            inFlight.acquireUninterruptibly(maxInFlight); // wait for the last lookups
+            writeIssues(scan);
+
+            run.setStatus("COMPLETED");
+            if (scan.gatewayUnavailable.get()) run.setLastError("Gateway checks skipped: " + scan.gatewayError);
+            log.info("Reconciliation {}..{}: {} payments, {} gateway checks, {} issues in {} ms",
+                    from, to, scan.scanned, scan.gatewayChecks.get(), scan.issueCount.get(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            run.setStatus("FAILED");
+            String error = String.valueOf(e.getMessage());
+            run.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            log.warn("Reconciliation {}..{} failed: {}", from, to, e.getMessage());
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+        run.setFinishedAt(LocalDateTime.now());
+        run.setPaymentsScanned(scan.scanned);
+        run.setGatewayChecks(scan.gatewayChecks.get());
+        run.setGatewayErrors(scan.gatewayErrors.get());
+        run.setIssueCount(scan.issueCount.get());
+        return runRepository.save(run);
+    }
+
+    // Postgres only uses a cursor for a fetch size inside a transaction, hence the read-only template
+    private void stream(LocalDate from, LocalDate to, Consumer<ScannedPayment> consumer) {
+        JdbcTemplate cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(chunkSize);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> cursor.query(SCAN_SQL, rs -> {
+            ScannedPayment p = new ScannedPayment();
+            p.paymentId = rs.getLong(1);
+            p.orderId = rs.getLong(2);
+            p.paymentStatus = rs.getString(3);
+            p.paymentMethod = rs.getString(4);
+            p.gatewayOrderId = rs.getString(5);
+            String transactionId = rs.getString(6);
+            // Payments from before gateway_order_id existed kept the gateway order id in transaction_id
+            if (p.gatewayOrderId == null && transactionId != null && transactionId.startsWith("order_")) {
+                p.gatewayOrderId = transactionId;
+            }
+            Timestamp paidAt = rs.getTimestamp(7);
+            p.paymentTime = paidAt != null ? paidAt.toLocalDateTime() : null;
+            p.orderStatus = rs.getString(8);
+            p.expectedAmount = Math.round(rs.getDouble(9) * 100);
+            consumer.accept(p);
+        }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay())));
+    }
+
+    private void checkLocally(ScannedPayment p, Scan scan) {
+        if ("PENDING".equals(p.paymentStatus) && p.paymentTime != null
+                && p.paymentTime.isBefore(scan.staleBefore)) {
+            scan.add(p, "STALE_PENDING", null, null, "Pending since " + p.paymentTime);
+        }
+        if ("SUCCESS".equals(p.paymentStatus) && "CANCELLED".equals(p.orderStatus)) {
+            scan.add(p, "PAID_CANCELLED", null, null, "Order was cancelled after a successful payment");
+        }
+    }
+
+    // Only real gateway payments; fresh PENDING ones are still in checkout
+    private boolean needsGatewayCheck(ScannedPayment p, Scan scan) {
+        if (p.gatewayOrderId == null || !"RAZORPAY".equalsIgnoreCase(p.paymentMethod)) return false;
+        return !"PENDING".equals(p.paymentStatus) || (p.paymentTime != null && p.paymentTime.isBefore(scan.staleBefore));
+    }
+
+    private void checkGateway(ScannedPayment p, Scan scan) {
+        PaymentGateway.GatewayOrder remote;
+        try {
+            remote = paymentGateway.fetchOrder(p.gatewayOrderId);
+            scan.gatewayChecks.incrementAndGet();
+        } catch (IllegalStateException e) {
+            // Gateway not configured: stop asking, the local checks still complete
+            scan.gatewayError = e.getMessage();
+            scan.gatewayUnavailable.set(true);
+            return;
+        } catch (Exception e) {
+            scan.gatewayErrors.incrementAndGet();
+            scan.add(p, "GATEWAY_ERROR", null, null, e.getMessage());
+            return;
+        }
+        boolean localPaid = "SUCCESS".equals(p.paymentStatus);
+        if (localPaid != remote.isPaid()) {
+            scan.add(p, "GATEWAY_MISMATCH", remote.getStatus(), remote.getAmountPaid(),
+                    "Payment is " + p.paymentStatus + " but gateway order is " + remote.getStatus());
+        }
+        long remoteAmount = remote.isPaid() ? remote.getAmountPaid() : remote.getAmount();
+        if (remoteAmount != p.expectedAmount) {
+            scan.add(p, "AMOUNT_MISMATCH", remote.getStatus(), remoteAmount,
+                    "Order total " + p.expectedAmount + " paise, gateway " + remoteAmount + " paise");
+        }
+    }
+
+    private void writeIssues(Scan scan) {
+        List<Object[]> batch = new ArrayList<>(chunkSize);
+        Object[] row;
+        while ((row = scan.issues.poll()) != null) {
+            batch.add(row);
+            if (batch.size() == chunkSize) {
+                jdbcTemplate.batchUpdate(INSERT_ISSUE_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbcTemplate.batchUpdate(INSERT_ISSUE_SQL, batch);
+    }
+
+    static class ScannedPayment {
+        long paymentId;
+        long orderId;
+        String paymentStatus;
+        String paymentMethod;
+        String gatewayOrderId;
+        LocalDateTime paymentTime;
+        String orderStatus;
+        long expectedAmount;
+    }
+
+    // State of one run; scanned is only touched by the streaming thread
+    private class Scan {
+        final long runId;
+        final LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(stalePendingMinutes);
+        final Queue<Object[]> issues = new ConcurrentLinkedQueue<>();
+        final AtomicLong issueCount = new AtomicLong();
+        final AtomicLong gatewayChecks = new AtomicLong();
+        final AtomicLong gatewayErrors = new AtomicLong();
+        final AtomicBoolean gatewayUnavailable = new AtomicBoolean();
+        volatile String gatewayError;
+        long scanned;
+
+        Scan(long runId) {
+            this.runId = runId;
+        }
+
+        // Counts every issue but keeps at most maxIssues rows
+        void add(ScannedPayment p, String type, String gatewayStatus, Long gatewayAmount, String detail) {
+            if (issueCount.incrementAndGet() > maxIssues) return;
+            if (detail != null && detail.length() > 500) detail = detail.substring(0, 500);
+            issues.add(new Object[]{runId, p.paymentId, p.orderId, type, p.paymentStatus, p.orderStatus,
+                    gatewayStatus, p.expectedAmount, gatewayAmount, detail, Timestamp.valueOf(LocalDateTime.now())});
+        }
+    }
+}
@@ -1,24 +1,37 @@
 package com.rbu.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.rbu.backend.Entities.Order;
+import com.rbu.backend.Entities.OrderStatus;
+import com.rbu.backend.Entities.PaymentStatus;
 import com.rbu.backend.Entities.Payment;
 import com.rbu.backend.Repository.OrderRepository;
 import com.rbu.backend.Repository.PaymentRepository;
 import com.rbu.backend.service.CouponService;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import com.razorpay.RazorpayClient;
-import com.razorpay.Utils;
-import org.json.JSONObject;
 import java.util.HashMap;
 import java.util.Map;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
+@Timed("canteen.service")
 @Service
 public class PaymentService {
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
     @Autowired
     private PaymentRepository paymentRepository;
     @Autowired
@@ -26,11 +39,20 @@ public class PaymentService {
     @Autowired
     private CouponService couponService;
 
-    @Value("${razorpay.keyId:}")
-    private String razorpayKeyId;
+    @Autowired
+    private PaymentGateway paymentGateway;
+    @Autowired
+    private PaymentEventProcessor paymentEventProcessor;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
 
-    @Value("${razorpay.keySecret:}")
-    private String razorpayKeySecret;
+    private static final String STATUS_SQL =
+            "SELECT o.total_amount, o.status, p.payment_status, p.transaction_id, c.code FROM orders o "
+                    + "LEFT JOIN payments p ON p.order_id = o.id LEFT JOIN coupons c ON c.order_id = o.id WHERE o.id = ?";
 
     public Payment createPayment(Long orderId, String method) {
         Order order = orderRepository.findById(orderId).orElseThrow();
@@ -43,10 +65,12 @@ public class PaymentService {
         if ("RAZORPAY".equalsIgnoreCase(method) || "MOCK".equalsIgnoreCase(method)) {
             payment.setPaymentStatus("SUCCESS");
             payment.setTransactionId("TXN-" + System.currentTimeMillis());
-            // After successful payment, move order to PREPARING and generate coupon
-            order.setStatus("PREPARING");
-            orderRepository.save(order);
-            couponService.generateForOrder(orderId);
+            // After successful payment, move order to PREPARING and generate coupon; a cancelled order gets none
+            if (orderService.transition(orderId, OrderStatus.PREPARING)) {
+                couponService.generateForOrder(orderId);
+            } else {
+                log.warn("Payment for order {} taken while the order is no longer active; no coupon issued", orderId);
+            }
         } else {
             payment.setPaymentStatus("FAILED");
         }
@@ -55,77 +79,111 @@ public class PaymentService {
 
     public Map<String, Object> createRazorpayOrder(Long orderId) throws Exception {
         Order order = orderRepository.findById(orderId).orElseThrow();
-        if (razorpayKeyId == null || razorpayKeyId.isBlank() || razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-            throw new IllegalStateException("Razorpay keys are not configured");
+        Payment payment = paymentRepository.findByOrderId(orderId);
+        if (payment != null && !PaymentStatus.PENDING.sources().contains(payment.getPaymentStatus())) {
+            throw new StatusTransitionException(payment.getPaymentStatus(), PaymentStatus.PENDING.name());
         }
-        RazorpayClient client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-        JSONObject options = new JSONObject();
-        options.put("amount", (int) Math.round(order.getTotalAmount() * 100)); // in paise
-        options.put("currency", "INR");
-        options.put("receipt", "rcpt_" + orderId);
-        options.put("payment_capture", 1);
-        com.razorpay.Order rpOrder = client.orders.create(options);
+        PaymentGateway.GatewayOrder rpOrder = paymentGateway.createOrder(
+                Math.round(order.getTotalAmount() * 100), "INR", "rcpt_" + orderId); // amount in paise
 
-        Payment payment = paymentRepository.findByOrderId(orderId);
         if (payment == null) {
             payment = new Payment();
             payment.setOrder(order);
         }
+        // Entity save is version-checked: a webhook confirming the payment meanwhile makes this fail
         payment.setPaymentMethod("RAZORPAY");
-        payment.setPaymentStatus("PENDING");
-        payment.setTransactionId(rpOrder.get("id")); // store Razorpay order id initially
+        payment.setPaymentStatus(PaymentStatus.PENDING.name());
+        payment.setTransactionId(rpOrder.getId()); // store Razorpay order id initially
+        payment.setGatewayOrderId(rpOrder.getId());
         payment.setPaymentTime(LocalDateTime.now());
         paymentRepository.save(payment);
 
         Map<String, Object> resp = new HashMap<>();
-        resp.put("razorpayOrderId", rpOrder.get("id"));
-        resp.put("amount", rpOrder.get("amount"));
-        resp.put("currency", rpOrder.get("currency"));
-        resp.put("keyId", razorpayKeyId);
+        resp.put("razorpayOrderId", rpOrder.getId());
+        resp.put("amount", rpOrder.getAmount());
+        resp.put("currency", rpOrder.getCurrency());
+        resp.put("keyId", paymentGateway.getKeyId());
         resp.put("orderId", orderId);
         return resp;
     }
 
+    // The checkout callback stays synchronous for the client, but goes through the same idempotent event
+    // pipeline as webhooks: whichever of the two arrives first applies the payment, the other is a no-op.
     public Map<String, Object> verifyRazorpayPayment(Long orderId, String razorpayOrderId, String razorpayPaymentId, String razorpaySignature) throws Exception {
-        if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-            throw new IllegalStateException("Razorpay secret is not configured");
+        boolean valid = paymentGateway.verifyPaymentSignature(razorpayOrderId, razorpayPaymentId, razorpaySignature);
+        if (!valid) {
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("paymentStatus", "FAILED");
+            return resp;
         }
-        JSONObject attributes = new JSONObject();
-        attributes.put("razorpay_order_id", razorpayOrderId);
-        attributes.put("razorpay_payment_id", razorpayPaymentId);
-        attributes.put("razorpay_signature", razorpaySignature);
-
-        boolean valid = Utils.verifyPaymentSignature(attributes, razorpayKeySecret);
-        Map<String, Object> resp = new HashMap<>();
-        if (valid) {
-            Order order = orderRepository.findById(orderId).orElseThrow();
-            Payment payment = paymentRepository.findByOrderId(orderId);
-            if (payment == null) {
-                payment = new Payment();
-                payment.setOrder(order);
-            }
-            payment.setPaymentMethod("RAZORPAY");
-            payment.setPaymentStatus("SUCCESS");
-            payment.setTransactionId(razorpayPaymentId);
-            payment.setPaymentTime(LocalDateTime.now());
-            paymentRepository.save(payment);
+        // The endpoint is public and the status carries the pickup coupon: the signed gateway order must
+        // belong to the order being asked about, or anyone could read another student's code
+        Payment payment = paymentRepository.findByGatewayOrderId(razorpayOrderId);
+        if (payment == null) payment = paymentRepository.findByTransactionId(razorpayOrderId);
+        if (payment == null || !payment.getOrder().getId().equals(orderId)) {
+            throw new IllegalArgumentException("Payment does not belong to this order");
+        }
+        Map<String, Object> resp = readStatus(orderId);
+        if (!"SUCCESS".equals(resp.get("paymentStatus"))) {
+            String eventId = "verify_" + razorpayPaymentId;
+            paymentEventProcessor.record(eventId, "payment.captured", callbackPayload(razorpayOrderId, razorpayPaymentId));
+            paymentEventProcessor.process(eventId);
+            resp = readStatus(orderId);
+        }
+        return resp;
+    }
 
-            // Move order to PREPARING and generate a coupon
-            order.setStatus("PREPARING");
-            orderRepository.save(order);
-            couponService.generateForOrder(orderId);
+    // Returns false for a bad signature; duplicates are accepted and dropped by the event table
+    public boolean acceptWebhook(String body, String signature, String eventId) {
+        if (!paymentGateway.verifyWebhookSignature(body, signature)) return false;
+        String eventType;
+        try {
+            eventType = objectMapper.readTree(body).path("event").asText("unknown");
+        } catch (Exception e) {
+            return false;
+        }
+        if (eventId == null || eventId.isBlank()) eventId = "sha256_" + sha256Hex(body);
+        if (paymentEventProcessor.record(eventId, eventType, body)) {
+            paymentEventProcessor.wakeUp();
+        }
+        return true;
+    }
 
-            resp.put("paymentStatus", payment.getPaymentStatus());
-            resp.put("transactionId", payment.getTransactionId());
+    // Payment, order and coupon state in one round trip
+    private Map<String, Object> readStatus(Long orderId) {
+        List<Map<String, Object>> rows = jdbcTemplate.query(STATUS_SQL, (rs, i) -> {
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("paymentStatus", rs.getString("payment_status"));
+            resp.put("transactionId", rs.getString("transaction_id"));
             resp.put("orderId", orderId);
+            resp.put("couponCode", rs.getString("code"));
             Map<String, Object> summary = new HashMap<>();
-            summary.put("totalAmount", order.getTotalAmount());
-            summary.put("status", order.getStatus());
+            summary.put("totalAmount", rs.getDouble("total_amount"));
+            summary.put("status", rs.getString("status"));
             resp.put("orderSummary", summary);
-        } else {
-            resp.put("paymentStatus", "FAILED");
+            return resp;
+        }, orderId);
+        if (rows.isEmpty()) throw new NoSuchElementException("Order not found");
+        return rows.get(0);
+    }
+
+    // Same shape as a Razorpay payment.captured webhook, so both sources share one code path
+    private String callbackPayload(String razorpayOrderId, String razorpayPaymentId) {
+        ObjectNode entity = objectMapper.createObjectNode();
+        entity.put("id", razorpayPaymentId);
+        entity.put("order_id", razorpayOrderId);
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("event", "payment.captured");
+        root.putObject("payload").putObject("payment").set("entity", entity);
+        return root.toString();
+    }
+
+    private static String sha256Hex(String body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return resp;
     }
 
     public Optional<Payment> getPaymentByOrderId(Long orderId) {
@@ -0,0 +1,202 @@
+package com.rbu.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.*;
+import java.util.*;
+
+// Per-student recommendations. A nightly batch turns every item into a small feature vector
+// (category, price band, daypart mix) and every student into the recency-weighted sum of what they ordered.
+// Both are kept in flat float arrays, so a request is one dot product per menu item plus a top-K.
+@Service
+public class PersonalRecommendationService {
+    private static final Logger log = LoggerFactory.getLogger(PersonalRecommendationService.class);
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final int DAYPARTS = 4; // breakfast, lunch, evening snacks, dinner
+    private static final int PRICE_BANDS = 3;
+
+    private static final String HISTORY_SQL =
+            "SELECT u.username, o.order_time, oi.food_item_id FROM orders o "
+                    + "JOIN users u ON u.id = o.user_id JOIN order_items oi ON oi.order_id = o.id "
+                    + "WHERE o.status <> 'CANCELLED' AND o.order_time >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.recommendations.history-days:180}")
+    private int historyDays;
+    @Value("${app.recommendations.recency-half-life-days:30}")
+    private double recencyHalfLifeDays;
+    @Value("${app.recommendations.daypart-weight:0.3}")
+    private double daypartWeight;
+
+    private volatile Model model;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Could not build recommendation profiles: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.recommendations.cron:0 30 2 * * *}", zone = "Asia/Kolkata")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        // Items and their categories / price bands
+        List<Long> itemIds = new ArrayList<>();
+        List<String> categories = new ArrayList<>();
+        List<Double> prices = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, category, price FROM food_items ORDER BY id", rs -> {
+            itemIds.add(rs.getLong(1));
+            categories.add(rs.getString(2));
+            prices.add(rs.getDouble(3));
+        });
+        Map<Long, Integer> itemRow = new HashMap<>();
+        for (int i = 0; i < itemIds.size(); i++) itemRow.put(itemIds.get(i), i);
+        Map<String, Integer> categoryDim = new HashMap<>();
+        for (String c : categories) categoryDim.putIfAbsent(c, categoryDim.size());
+
+        int n = itemIds.size();
+        int dim = categoryDim.size() + PRICE_BANDS + DAYPARTS;
+        int daypartOffset = categoryDim.size() + PRICE_BANDS;
+
+        // One streamed pass over history: item daypart counts and per-user weighted item counts
+        float[] daypartCounts = new float[n * DAYPARTS];
+        Map<String, Map<Integer, Float>> userItems = new HashMap<>();
+        LocalDateTime since = LocalDateTime.now().minusDays(historyDays);
+        double lambda = Math.log(2) / recencyHalfLifeDays;
+        long nowMillis = System.currentTimeMillis();
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(2000);
+        streaming.query(HISTORY_SQL, rs -> {
+            Integer row = itemRow.get(rs.getLong(3));
+            if (row == null) return;
+            Instant at = rs.getTimestamp(2).toLocalDateTime().atZone(ZoneId.systemDefault()).toInstant();
+            daypartCounts[row * DAYPARTS + daypart(at.atZone(IST).getHour())]++;
+            double ageDays = Math.max(0, nowMillis - at.toEpochMilli()) / 86_400_000.0;
+            userItems.computeIfAbsent(rs.getString(1), k -> new HashMap<>())
+                    .merge(row, (float) Math.exp(-lambda * ageDays), Float::sum);
+        }, since);
+
+        float[] itemMatrix = new float[n * dim];
+        float[] daypartPopularity = new float[n * DAYPARTS];
+        float[] maxPerDaypart = new float[DAYPARTS];
+        for (int i = 0; i < n; i++) {
+            int base = i * dim;
+            itemMatrix[base + categoryDim.get(categories.get(i))] = 1f;
+            itemMatrix[base + categoryDim.size() + priceBand(prices.get(i))] = 0.5f;
+            float total = 0;
+            for (int d = 0; d < DAYPARTS; d++) total += daypartCounts[i * DAYPARTS + d];
+            for (int d = 0; d < DAYPARTS; d++) {
+                float c = daypartCounts[i * DAYPARTS + d];
+                if (total > 0) itemMatrix[base + daypartOffset + d] = 0.75f * c / total;
+                maxPerDaypart[d] = Math.max(maxPerDaypart[d], c);
+            }
+            normalize(itemMatrix, base, dim);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < DAYPARTS; d++) {
+                if (maxPerDaypart[d] > 0) daypartPopularity[i * DAYPARTS + d] = daypartCounts[i * DAYPARTS + d] / maxPerDaypart[d];
+            }
+        }
+
+        Map<String, Integer> userRow = new HashMap<>(userItems.size() * 2);
+        float[] userMatrix = new float[userItems.size() * dim];
+        for (Map.Entry<String, Map<Integer, Float>> u : userItems.entrySet()) {
+            int base = userRow.size() * dim;
+            userRow.put(u.getKey(), userRow.size());
+            for (Map.Entry<Integer, Float> e : u.getValue().entrySet()) {
+                int itemBase = e.getKey() * dim;
+                for (int k = 0; k < dim; k++) userMatrix[base + k] += e.getValue() * itemMatrix[itemBase + k];
+            }
+            normalize(userMatrix, base, dim);
+        }
+
+        long[] ids = itemIds.stream().mapToLong(Long::longValue).toArray();
+        model = new Model(dim, ids, itemMatrix, daypartPopularity, userRow, userMatrix);
+        log.info("Recommendation profiles built: {} items, {} users in {} ms",
+                n, userRow.size(), System.currentTimeMillis() - started);
+    }
+
+    // Ranked item ids for a student; students with no history get the current daypart's favourites
+    public List<Long> recommend(String username, int limit) {
+        Model m = model;
+        if (m == null || limit <= 0) return List.of();
+        int daypart = daypart(ZonedDateTime.now(IST).getHour());
+        Integer row = m.userRow.get(username);
+        PriorityQueue<double[]> heap = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(a -> a[0]));
+        for (int i = 0; i < m.itemIds.length; i++) {
+            double score = daypartWeight * m.daypartPopularity[i * DAYPARTS + daypart];
+            if (row != null) {
+                int ub = row * m.dim;
+                int ib = i * m.dim;
+                double dot = 0;
+                for (int k = 0; k < m.dim; k++) dot += m.userMatrix[ub + k] * m.itemMatrix[ib + k];
+                score += (1 - daypartWeight) * dot;
+            }
+            if (score <= 0) continue;
+            heap.offer(new double[]{score, i});
+            if (heap.size() > limit) heap.poll();
+        }
+        Long[] ranked = new Long[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) ranked[i] = m.itemIds[(int) heap.poll()[1]];
+        return Arrays.asList(ranked);
+    }
+
+    static int daypart(int hourIst) {
+        if (hourIst < 11) return 0;
+        if (hourIst < 15) return 1;
+        if (hourIst < 18) return 2;
+        return 3;
+    }
+
+    private static int priceBand(double price) {
+        if (price < 40) return 0;
+        if (price < 100) return 1;
+        return 2;
+    }
+
+    private static void normalize(float[] v, int offset, int len) {
+        double sum = 0;
+        for (int k = 0; k < len; k++) sum += v[offset + k] * v[offset + k];
+        if (sum == 0) return;
+        float inv = (float) (1 / Math.sqrt(sum));
+        for (int k = 0; k < len; k++) v[offset + k] *= inv;
+    }
+
+    // Immutable snapshot swapped in by each rebuild; row-major float matrices
+    private static class Model {
+        private final int dim;
+        private final long[] itemIds;
+        private final float[] itemMatrix;
+        private final float[] daypartPopularity;
+        private final Map<String, Integer> userRow;
+        private final float[] userMatrix;
+
+        Model(int dim, long[] itemIds, float[] itemMatrix, float[] daypartPopularity,
+              Map<String, Integer> userRow, float[] userMatrix) {
+            this.dim = dim;
+            this.itemIds = itemIds;
+            this.itemMatrix = itemMatrix;
+            this.daypartPopularity = daypartPopularity;
+            this.userRow = userRow;
+            this.userMatrix = userMatrix;
+        }
+    }
+}
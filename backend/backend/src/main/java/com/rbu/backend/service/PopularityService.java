@@ -0,0 +1,148 @@
+package com.rbu.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Live FoodItem.totalOrders. Order events bump striped adders; deltas are written behind to
+// food_items in a single UPDATE, and a nightly job recomputes the column from order history.
+@Service
+public class PopularityService {
+    private static final Logger log = LoggerFactory.getLogger(PopularityService.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE food_items f SET total_orders = f.total_orders + d.delta "
+                    + "FROM unnest(?::bigint[], ?::bigint[]) AS d(id, delta) WHERE f.id = d.id";
+    private static final String RECONCILE_SQL =
+            "UPDATE food_items f SET total_orders = COALESCE((SELECT COUNT(*) FROM order_items oi "
+                    + "JOIN orders o ON o.id = oi.order_id "
+                    + "WHERE oi.food_item_id = f.id AND o.status <> 'CANCELLED'), 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<Long, LongAdder> totals = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Events and flushes share the read side; reconcile takes the write side so no delta lands between
+    // the recount and the reload
+    private final ReentrantReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            loadTotals();
+        } catch (Exception e) {
+            log.warn("Could not load popularity counters: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        reconcileLock.readLock().lock();
+        try {
+            for (Long id : event.getItemIds()) {
+                totals.computeIfAbsent(id, k -> new LongAdder()).add(event.getDelta());
+                pending.computeIfAbsent(id, k -> new LongAdder()).add(event.getDelta());
+            }
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    public long getTotal(Long foodItemId) {
+        LongAdder adder = totals.get(foodItemId);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    public List<Long> topIds(int limit) {
+        PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, LongAdder> e : totals.entrySet()) {
+            heap.offer(Map.entry(e.getKey(), e.getValue().sum()));
+            if (heap.size() > limit) heap.poll();
+        }
+        List<Long> ids = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) ids.add(heap.poll().getKey());
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    @Scheduled(fixedDelayString = "${app.popularity.flush-interval-ms:5000}")
+    public void flush() {
+        reconcileLock.readLock().lock();
+        try {
+            flushPending();
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> e : pending.entrySet()) {
+            long delta = e.getValue().sumThenReset();
+            if (delta != 0) {
+                ids.add(e.getKey());
+                deltas.add(delta);
+            }
+        }
+        if (ids.isEmpty()) return;
+        try {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(FLUSH_SQL);
+                Array idArray = con.createArrayOf("bigint", ids.toArray());
+                Array deltaArray = con.createArrayOf("bigint", deltas.toArray());
+                ps.setArray(1, idArray);
+                ps.setArray(2, deltaArray);
+                return ps;
+            });
+        } catch (Exception e) {
+            for (int i = 0; i < ids.size(); i++) {
+                pending.computeIfAbsent(ids.get(i), k -> new LongAdder()).add(deltas.get(i));
+            }
+            log.warn("Popularity flush failed for {} items, will retry: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    // Recomputes total_orders from non-cancelled orders, then reloads the live counters. Unflushed deltas
+    // are dropped: the recount already includes those orders.
+    @Scheduled(cron = "${app.popularity.reconcile-cron:0 30 3 * * *}", zone = "Asia/Kolkata")
+    @Transactional
+    public void reconcile() {
+        reconcileLock.writeLock().lock();
+        try {
+            pending.clear();
+            int updated = jdbcTemplate.update(RECONCILE_SQL);
+            loadTotals();
+            log.info("Popularity reconciled for {} items", updated);
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private void loadTotals() {
+        Map<Long, Long> fromDb = new HashMap<>();
+        jdbcTemplate.query("SELECT id, total_orders FROM food_items", rs -> { fromDb.put(rs.getLong(1), rs.getLong(2)); });
+        // Events that arrived since the last flush are still pending and stay on top of the DB value
+        for (Map.Entry<Long, Long> e : fromDb.entrySet()) {
+            LongAdder unflushed = pending.get(e.getKey());
+            LongAdder fresh = new LongAdder();
+            fresh.add(e.getValue() + (unflushed == null ? 0 : unflushed.sum()));
+            totals.put(e.getKey(), fresh);
+        }
+        totals.keySet().retainAll(fromDb.keySet());
+    }
+}
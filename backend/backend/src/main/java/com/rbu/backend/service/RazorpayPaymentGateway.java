@@ -0,0 +1,188 @@
+package com.rbu.backend.service;
+
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.razorpay.Utils;
+import com.rbu.backend.util.LatencyRecorder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One RazorpayClient for the whole app: every client construction builds a fresh OkHttp client and
+// connection pool, so reusing it keeps TLS connections alive between payments.
+// The SDK hard-codes 60s socket timeouts, so calls run on a small bounded pool and the caller
+// waits at most app.payments.gateway-timeout-ms; a full pool fails fast instead of queueing.
+@Service
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+    private static final Logger log = LoggerFactory.getLogger(RazorpayPaymentGateway.class);
+
+    @Value("${razorpay.keyId:}")
+    private String razorpayKeyId;
+    @Value("${razorpay.keySecret:}")
+    private String razorpayKeySecret;
+    @Value("${razorpay.webhookSecret:}")
+    private String webhookSecret;
+    @Value("${app.payments.gateway-timeout-ms:8000}")
+    private long timeoutMs;
+    @Value("${app.payments.gateway-threads:8}")
+    private int threads;
+    @Value("${app.payments.gateway-queue-size:32}")
+    private int queueSize;
+
+    private final LatencyRecorder latency = new LatencyRecorder();
+    private final AtomicInteger timeouts = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private volatile RazorpayClient client;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "razorpay-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        if (configured()) {
+            try {
+                client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+            } catch (RazorpayException e) {
+                log.warn("Could not create Razorpay client: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String getKeyId() {
+        return razorpayKeyId;
+    }
+
+    @Override
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt) {
+        RazorpayClient rzp = client();
+        JSONObject options = new JSONObject();
+        options.put("amount", amountPaise);
+        options.put("currency", currency);
+        options.put("receipt", receipt);
+        options.put("payment_capture", 1);
+        com.razorpay.Order order = call(() -> rzp.orders.create(options));
+        return new GatewayOrder(order.get("id"), ((Number) order.get("amount")).longValue(), order.get("currency"));
+    }
+
+    @Override
+    public GatewayOrder fetchOrder(String gatewayOrderId) {
+        RazorpayClient rzp = client();
+        com.razorpay.Order order = call(() -> rzp.orders.fetch(gatewayOrderId));
+        return new GatewayOrder(order.get("id"), ((Number) order.get("amount")).longValue(), order.get("currency"),
+                order.get("status"), ((Number) order.get("amount_paid")).longValue());
+    }
+
+    @Override
+    public boolean verifyPaymentSignature(String gatewayOrderId, String gatewayPaymentId, String signature) {
+        if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
+            throw new IllegalStateException("Razorpay secret is not configured");
+        }
+        JSONObject attributes = new JSONObject();
+        attributes.put("razorpay_order_id", gatewayOrderId);
+        attributes.put("razorpay_payment_id", gatewayPaymentId);
+        attributes.put("razorpay_signature", signature);
+        try {
+            return Utils.verifyPaymentSignature(attributes, razorpayKeySecret);
+        } catch (RazorpayException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String body, String signature) {
+        if (webhookSecret == null || webhookSecret.isBlank()) {
+            throw new IllegalStateException("Razorpay webhook secret is not configured");
+        }
+        if (signature == null) return false;
+        try {
+            return Utils.verifyWebhookSignature(body, signature, webhookSecret);
+        } catch (RazorpayException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = latency.snapshot();
+        stats.put("gateway", "razorpay");
+        stats.put("timeouts", timeouts.get());
+        stats.put("rejected", rejected.get());
+        stats.put("inFlight", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        return stats;
+    }
+
+    private <T> T call(Callable<T> request) {
+        long started = System.nanoTime();
+        boolean failed = true;
+        Future<T> future;
+        try {
+            future = executor.submit(request);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            latency.record(System.nanoTime() - started, true);
+            throw new PaymentGatewayException("Payment gateway is busy, please retry");
+        }
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            failed = false;
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.incrementAndGet();
+            throw new PaymentGatewayException("Payment gateway timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while calling payment gateway", e);
+        } catch (ExecutionException e) {
+            throw new PaymentGatewayException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            latency.record(System.nanoTime() - started, failed);
+        }
+    }
+
+    private RazorpayClient client() {
+        if (!configured()) throw new IllegalStateException("Razorpay keys are not configured");
+        RazorpayClient rzp = client;
+        if (rzp == null) {
+            synchronized (this) {
+                if (client == null) {
+                    try {
+                        client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+                    } catch (RazorpayException e) {
+                        throw new PaymentGatewayException("Could not create Razorpay client", e);
+                    }
+                }
+                rzp = client;
+            }
+        }
+        return rzp;
+    }
+
+    private boolean configured() {
+        return razorpayKeyId != null && !razorpayKeyId.isBlank() && razorpayKeySecret != null && !razorpayKeySecret.isBlank();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
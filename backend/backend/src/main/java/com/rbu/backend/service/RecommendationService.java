@@ -1,57 +1,99 @@
 package com.rbu.backend.service;
 
+import com.rbu.backend.Entities.ComboRule;
 import com.rbu.backend.Entities.FoodItem;
-import com.rbu.backend.Entities.Order;
 import com.rbu.backend.Repository.FoodItemRepository;
-import com.rbu.backend.Repository.OrderRepository;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Timed("canteen.service")
 @Service
 public class RecommendationService {
-    @Autowired
-    private OrderRepository orderRepository;
     @Autowired
     private FoodItemRepository foodItemRepository;
+    @Autowired
+    private CoOccurrenceService coOccurrenceService;
+    @Autowired
+    private TrendingService trendingService;
+    @Autowired
+    private ComboMiningService comboMiningService;
+    @Autowired
+    private PersonalRecommendationService personalRecommendationService;
+    @Autowired
+    private TimeOfDayDemandService timeOfDayDemandService;
 
+    // "Today" is the IST day; counts come from TrendingService, not an order scan
     public List<FoodItem> getMostOrderedToday(int limit) {
-        LocalDate today = LocalDate.now();
-        List<Order> todaysOrders = orderRepository.findAll().stream()
-                .filter(o -> o.getOrderTime() != null && o.getOrderTime().toLocalDate().equals(today))
+        return getTrending(TrendingService.Window.TODAY, limit);
+    }
+
+    public List<FoodItem> getTrending(TrendingService.Window window, int limit) {
+        return hydrate(trendingService.topIds(window, limit));
+    }
+
+    public List<FoodItem> getFrequentlyOrderedWith(Long foodItemId, int limit) {
+        return hydrate(coOccurrenceService.topNeighbors(foodItemId, limit));
+    }
+
+    public List<FoodItem> getForUser(String username, int limit) {
+        limit = Math.max(limit, 0); // Stream.limit rejects negatives
+        // Ask for a few extra so sold-out items can be dropped without a second pass
+        return hydrate(personalRecommendationService.recommend(username, limit + 5)).stream()
+                .filter(FoodItem::isAvailable)
+                .limit(limit)
                 .collect(Collectors.toList());
-        Map<FoodItem, Long> counts = todaysOrders.stream()
-                .flatMap(o -> o.getItems().stream())
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-        return counts.entrySet().stream()
-                .sorted(Map.Entry.<FoodItem, Long>comparingByValue().reversed())
+    }
+
+    // Items usually ordered around this time of day (IST half-hour slot and weekday)
+    public List<FoodItem> getForNow(int limit) {
+        limit = Math.max(limit, 0);
+        return hydrate(timeOfDayDemandService.topIdsNow(limit + 5)).stream()
+                .filter(FoodItem::isAvailable)
                 .limit(limit)
-                .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
     }
 
-    public List<FoodItem> getFrequentlyOrderedWith(Long foodItemId, int limit) {
-        List<Order> allOrders = orderRepository.findAll();
-        Map<Long, Long> coCounts = new HashMap<>();
-        for (Order order : allOrders) {
-            if (order.getItems() == null || order.getItems().isEmpty()) continue;
-            Set<Long> ids = order.getItems().stream().map(FoodItem::getId).collect(Collectors.toSet());
-            if (!ids.contains(foodItemId)) continue;
-            for (Long id : ids) {
-                if (Objects.equals(id, foodItemId)) continue;
-                coCounts.merge(id, 1L, Long::sum);
-            }
+    public void rebuildTimeOfDay() {
+        timeOfDayDemandService.rebuild();
+    }
+
+    // Precomputed rules for exactly this basket, best confidence first
+    public List<Map<String, Object>> getCombos(List<Long> basket, int limit) {
+        List<ComboRule> rules = comboMiningService.rulesFor(basket, limit);
+        Map<Long, FoodItem> byId = hydrate(rules.stream().map(ComboRule::getConsequent).toList()).stream()
+                .collect(Collectors.toMap(FoodItem::getId, Function.identity()));
+        List<Map<String, Object>> combos = new ArrayList<>();
+        for (ComboRule rule : rules) {
+            FoodItem item = byId.get(rule.getConsequent());
+            if (item == null || !item.isAvailable()) continue;
+            Map<String, Object> combo = new HashMap<>();
+            combo.put("item", item);
+            combo.put("support", rule.getSupport());
+            combo.put("confidence", rule.getConfidence());
+            combo.put("lift", rule.getLift());
+            combos.add(combo);
         }
-        return coCounts.entrySet().stream()
-                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
-                .limit(limit)
-                .map(e -> foodItemRepository.findById(e.getKey()).orElse(null))
+        return combos;
+    }
+
+    public void mineCombos() {
+        comboMiningService.mine();
+    }
+
+    // One batch lookup for a ranked id list, keeping the ranking order
+    private List<FoodItem> hydrate(List<Long> rankedIds) {
+        if (rankedIds.isEmpty()) return List.of();
+        Map<Long, FoodItem> byId = foodItemRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(FoodItem::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(byId::get)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.rbu.backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SoldOutException extends RuntimeException {
+    public SoldOutException(String itemName) {
+        super("Sold out: " + itemName);
+    }
+}
@@ -0,0 +1,11 @@
+package com.rbu.backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StatusTransitionException extends RuntimeException {
+    public StatusTransitionException(String from, String to) {
+        super("Cannot move from " + from + " to " + to);
+    }
+}
@@ -0,0 +1,149 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.Entities.FoodItem;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-item stock counters. Reservations are CAS decrements on the item's own counter, so
+// concurrent orders for different items never contend; the DB copy is written behind in batches.
+@Service
+public class StockService {
+    private static final Logger log = LoggerFactory.getLogger(StockService.class);
+
+    // Off at zero; back on only if the item was at zero before (a manual "unavailable" is kept)
+    private static final String FLUSH_SQL =
+            "UPDATE food_items SET available = CASE WHEN ? <= 0 THEN false WHEN stock_quantity <= 0 THEN true ELSE available END, "
+                    + "stock_quantity = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MenuPayloadCache menuPayloadCache;
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> remaining = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> crossedZero = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            jdbcTemplate.query("SELECT id, stock_quantity FROM food_items WHERE stock_quantity IS NOT NULL",
+                    rs -> { remaining.put(rs.getLong(1), new AtomicInteger(rs.getInt(2))); });
+            log.info("Loaded stock counters for {} items", remaining.size());
+        } catch (Exception e) {
+            log.warn("Could not load stock counters: {}", e.getMessage());
+        }
+    }
+
+    // All-or-nothing: if any item runs out, what was already taken for this order is put back
+    public void reserve(List<FoodItem> items) {
+        Map<Long, Integer> wanted = countTracked(items);
+        List<Map.Entry<Long, Integer>> taken = new ArrayList<>(wanted.size());
+        for (Map.Entry<Long, Integer> e : wanted.entrySet()) {
+            AtomicInteger counter = remaining.get(e.getKey());
+            if (counter == null) continue; // untracked since counted
+            int left = tryTake(counter, e.getValue());
+            if (left < 0) {
+                for (Map.Entry<Long, Integer> t : taken) give(t.getKey(), t.getValue());
+                throw new SoldOutException(nameOf(items, e.getKey()));
+            }
+            taken.add(e);
+            dirty.add(e.getKey());
+            if (left == 0) crossedZero.add(e.getKey());
+        }
+    }
+
+    public void release(List<FoodItem> items) {
+        if (items == null) return;
+        countTracked(items).forEach(this::give);
+    }
+
+    // Admin restock or untrack (quantity == null); written through immediately
+    public void setStock(Long foodItemId, Integer quantity) {
+        if (quantity == null) {
+            remaining.remove(foodItemId);
+            dirty.remove(foodItemId);
+            jdbcTemplate.update("UPDATE food_items SET stock_quantity = NULL WHERE id = ?", foodItemId);
+        } else {
+            int q = Math.max(quantity, 0);
+            remaining.computeIfAbsent(foodItemId, k -> new AtomicInteger()).set(q);
+            dirty.remove(foodItemId);
+            jdbcTemplate.update(FLUSH_SQL, q, q, foodItemId);
+        }
+        menuPayloadCache.invalidate();
+    }
+
+    public Integer getRemaining(Long foodItemId) {
+        AtomicInteger counter = remaining.get(foodItemId);
+        return counter == null ? null : counter.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.flush-interval-ms:2000}")
+    public void flush() {
+        if (dirty.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AtomicInteger counter = remaining.get(id);
+            if (counter == null) continue;
+            int value = counter.get();
+            batch.add(new Object[]{value, value, id});
+        }
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (Exception e) {
+            dirty.addAll(ids);
+            log.warn("Stock flush failed for {} items, will retry: {}", ids.size(), e.getMessage());
+            return;
+        }
+        List<Long> flipped = new ArrayList<>(ids);
+        flipped.retainAll(crossedZero);
+        if (!flipped.isEmpty()) {
+            crossedZero.removeAll(flipped);
+            menuPayloadCache.invalidate();
+            menuSearchIndex.rebuild();
+        }
+    }
+
+    private void give(Long id, int n) {
+        AtomicInteger counter = remaining.get(id);
+        if (counter == null) return;
+        if (counter.getAndAdd(n) == 0) crossedZero.add(id);
+        dirty.add(id);
+    }
+
+    // Returns what is left after taking n, or -1 without touching the counter if fewer than n remain
+    private static int tryTake(AtomicInteger counter, int n) {
+        for (;;) {
+            int current = counter.get();
+            if (current < n) return -1;
+            if (counter.compareAndSet(current, current - n)) return current - n;
+        }
+    }
+
+    private Map<Long, Integer> countTracked(List<FoodItem> items) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (FoodItem item : items) {
+            if (item.getId() != null && remaining.containsKey(item.getId())) counts.merge(item.getId(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static String nameOf(List<FoodItem> items, Long id) {
+        return items.stream().filter(i -> id.equals(i.getId())).map(FoodItem::getName).findFirst().orElse("item " + id);
+    }
+}
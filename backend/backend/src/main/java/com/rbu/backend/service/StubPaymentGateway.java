@@ -0,0 +1,100 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.util.LatencyRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process stand-in for Razorpay (app.payments.gateway=stub). Orders get synthetic ids after a configurable
+// delay and failure rate; signatures use the same HMAC-SHA256("orderId|paymentId") scheme with
+// app.payments.stub.secret, so a test client can produce valid checkout callbacks.
+@Service
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+    @Value("${app.payments.stub.secret:stub_secret}")
+    private String secret;
+    @Value("${app.payments.stub.latency-ms:50}")
+    private long latencyMs;
+    @Value("${app.payments.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    private final LatencyRecorder latency = new LatencyRecorder();
+    private final AtomicLong sequence = new AtomicLong();
+    // Orders created by this process, so fetchOrder can answer; the stub is for tests and load runs only
+    private final Map<String, GatewayOrder> orders = new ConcurrentHashMap<>();
+
+    @Override
+    public String getKeyId() {
+        return "rzp_test_stub";
+    }
+
+    @Override
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt) {
+        long started = System.nanoTime();
+        boolean failed = ThreadLocalRandom.current().nextDouble() < failureRate;
+        try {
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        latency.record(System.nanoTime() - started, failed);
+        if (failed) throw new PaymentGatewayException("Stub gateway failure");
+        GatewayOrder order = new GatewayOrder("order_stub" + sequence.incrementAndGet(), amountPaise, currency);
+        orders.put(order.getId(), order);
+        return order;
+    }
+
+    @Override
+    public GatewayOrder fetchOrder(String gatewayOrderId) {
+        GatewayOrder order = orders.get(gatewayOrderId);
+        if (order == null) throw new PaymentGatewayException("Unknown order " + gatewayOrderId);
+        return order;
+    }
+
+    @Override
+    public boolean verifyPaymentSignature(String gatewayOrderId, String gatewayPaymentId, String signature) {
+        if (signature == null) return false;
+        byte[] expected = sign(gatewayOrderId + "|" + gatewayPaymentId).getBytes(StandardCharsets.US_ASCII);
+        boolean valid = MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+        // A signed callback means the test client "paid"
+        if (valid) {
+            orders.computeIfPresent(gatewayOrderId, (id, o) ->
+                    new GatewayOrder(id, o.getAmount(), o.getCurrency(), "paid", o.getAmount()));
+        }
+        return valid;
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String body, String signature) {
+        if (signature == null) return false;
+        return MessageDigest.isEqual(sign(body).getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = latency.snapshot();
+        stats.put("gateway", "stub");
+        return stats;
+    }
+}
@@ -0,0 +1,171 @@
+package com.rbu.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Per-item order histograms by IST weekday x 30-minute slot (7 x 48 counters), kept from order events.
+// Expected demand for "now" smooths over the neighbouring slots and blends same-weekday with all-week counts.
+@Service
+public class TimeOfDayDemandService {
+    private static final Logger log = LoggerFactory.getLogger(TimeOfDayDemandService.class);
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final int SLOTS_PER_DAY = 48;
+    private static final int CELLS = 7 * SLOTS_PER_DAY;
+
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM orders";
+    private static final String PAGE_IDS_SQL =
+            "SELECT id FROM orders WHERE id > ? AND id <= ? AND status <> 'CANCELLED' AND order_time >= ? ORDER BY id LIMIT ?";
+    private static final String PAGE_ITEMS_SQL =
+            "SELECT o.id, o.order_time, oi.food_item_id FROM orders o JOIN order_items oi ON oi.order_id = o.id "
+                    + "WHERE o.id > ? AND o.id <= ? AND o.status <> 'CANCELLED' AND o.order_time >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.time-of-day.history-weeks:12}")
+    private int historyWeeks;
+    @Value("${app.time-of-day.page-size:5000}")
+    private int pageSize;
+    @Value("${app.time-of-day.weekday-weight:0.6}")
+    private double weekdayWeight;
+
+    private volatile ConcurrentHashMap<Long, AtomicIntegerArray> histograms = new ConcurrentHashMap<>();
+    // Non-null while a rebuild runs, so events in the meantime land in the new histograms too. The rebuild
+    // pages orders up to buildBound (max id at its start); newer orders only arrive through events. Orders the
+    // pages counted are marked in `counted`, so a later cancellation is subtracted exactly when it was counted.
+    // Pages and event application to `building` hold buildLock.
+    private volatile ConcurrentHashMap<Long, AtomicIntegerArray> building;
+    private final Object buildLock = new Object();
+    private long buildBound;
+    private BitSet counted;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Could not build time-of-day histograms: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getOrderTime() == null) return;
+        int cell = cellOf(event.getOrderTime().atZone(ZoneId.systemDefault()));
+        for (Long id : event.getItemIds()) add(histograms, id, cell, event.getDelta());
+        ConcurrentHashMap<Long, AtomicIntegerArray> next = building;
+        if (next == null) return;
+        synchronized (buildLock) {
+            if (building != next || !affectsRebuild(event)) return;
+            for (Long id : event.getItemIds()) add(next, id, cell, event.getDelta());
+        }
+    }
+
+    // Newer than the paged range, or a cancellation of an order a page already counted
+    private boolean affectsRebuild(OrderEvent event) {
+        long orderId = event.getOrderId();
+        if (orderId > buildBound) return true;
+        return event.getType() == OrderEvent.Type.CANCELLED && counted.get(Math.toIntExact(orderId));
+    }
+
+    // Pages through recent order history by id and swaps in freshly counted histograms
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) return;
+        try {
+            ConcurrentHashMap<Long, AtomicIntegerArray> fresh = new ConcurrentHashMap<>();
+            synchronized (buildLock) {
+                counted = new BitSet();
+                // Read with the lock held: an order with a higher id was placed after this point
+                buildBound = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+                building = fresh;
+            }
+            long bound = buildBound;
+            LocalDateTime since = LocalDateTime.now().minusWeeks(historyWeeks);
+            long lastId = 0;
+            long orders = 0;
+            while (true) {
+                List<Long> ids = jdbcTemplate.queryForList(PAGE_IDS_SQL, Long.class, lastId, bound, since, pageSize);
+                if (ids.isEmpty()) break;
+                long upTo = ids.get(ids.size() - 1);
+                synchronized (buildLock) {
+                    // Status is re-read here, so an order cancelled since the id query is not counted
+                    jdbcTemplate.query(PAGE_ITEMS_SQL, rs -> {
+                        int cell = cellOf(rs.getTimestamp(2).toLocalDateTime().atZone(ZoneId.systemDefault()));
+                        add(fresh, rs.getLong(3), cell, 1);
+                        counted.set(Math.toIntExact(rs.getLong(1)));
+                    }, lastId, upTo, since);
+                }
+                orders += ids.size();
+                lastId = upTo;
+                if (ids.size() < pageSize) break;
+            }
+            histograms = fresh;
+            log.info("Time-of-day histograms rebuilt from {} orders", orders);
+        } finally {
+            synchronized (buildLock) {
+                building = null;
+                counted = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    public List<Long> topIdsNow(int limit) {
+        return topIds(ZonedDateTime.now(IST), limit);
+    }
+
+    public List<Long> topIds(ZonedDateTime at, int limit) {
+        if (limit <= 0) return List.of();
+        ZonedDateTime ist = at.withZoneSameInstant(IST);
+        int weekday = ist.getDayOfWeek().getValue() - 1;
+        int slot = ist.getHour() * 2 + ist.getMinute() / 30;
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, AtomicIntegerArray> e : histograms.entrySet()) {
+            double demand = expectedDemand(e.getValue(), weekday, slot);
+            if (demand <= 0) continue;
+            heap.offer(Map.entry(e.getKey(), demand));
+            if (heap.size() > limit) heap.poll();
+        }
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) ranked.add(heap.poll().getKey());
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    private double expectedDemand(AtomicIntegerArray h, int weekday, int slot) {
+        double sameDay = smoothed(h, weekday, slot);
+        double allDays = 0;
+        for (int d = 0; d < 7; d++) allDays += smoothed(h, d, slot);
+        return weekdayWeight * sameDay + (1 - weekdayWeight) * allDays / 7;
+    }
+
+    // 1-2-1 kernel over the slot and its neighbours (wrapping across midnight within the same weekday)
+    private static double smoothed(AtomicIntegerArray h, int weekday, int slot) {
+        int base = weekday * SLOTS_PER_DAY;
+        int prev = base + (slot + SLOTS_PER_DAY - 1) % SLOTS_PER_DAY;
+        int next = base + (slot + 1) % SLOTS_PER_DAY;
+        return 0.25 * h.get(prev) + 0.5 * h.get(base + slot) + 0.25 * h.get(next);
+    }
+
+    private static void add(ConcurrentHashMap<Long, AtomicIntegerArray> target, Long itemId, int cell, int delta) {
+        target.computeIfAbsent(itemId, k -> new AtomicIntegerArray(CELLS)).addAndGet(cell, delta);
+    }
+
+    private static int cellOf(ZonedDateTime time) {
+        ZonedDateTime ist = time.withZoneSameInstant(IST);
+        return (ist.getDayOfWeek().getValue() - 1) * SLOTS_PER_DAY + ist.getHour() * 2 + ist.getMinute() / 30;
+    }
+}
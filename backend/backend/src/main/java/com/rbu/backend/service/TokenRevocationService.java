@@ -0,0 +1,62 @@
+package com.rbu.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Per-user token versions used to revoke stateless JWTs. A token carries the version it was issued with;
+// it stops working once the user's version moves past it or the account is disabled.
+// The table is re-read in the background, so the request path only does a map lookup.
+@Service
+public class TokenRevocationService {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // userId -> current version, or -1 when the account is disabled
+    private volatile Map<Long, Integer> versions = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation-refresh-ms:30000}")
+    public void refresh() {
+        try {
+            Map<Long, Integer> next = new HashMap<>();
+            jdbcTemplate.query("SELECT id, token_version, enabled FROM users",
+                    rs -> { next.put(rs.getLong(1), rs.getBoolean(3) ? rs.getInt(2) : -1); });
+            versions = next;
+        } catch (Exception e) {
+            log.warn("Could not refresh token versions: {}", e.getMessage());
+        }
+    }
+
+    // Users created since the last refresh are unknown here and start at version 0
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        if (current == null) return true;
+        return current >= 0 && tokenVersion >= current;
+    }
+
+    // Invalidates every token issued to the user so far
+    public void revokeAll(Long userId) {
+        Integer version = jdbcTemplate.queryForObject(
+                "UPDATE users SET token_version = token_version + 1 WHERE id = ? RETURNING token_version",
+                Integer.class, userId);
+        if (version == null) return;
+        Map<Long, Integer> next = new HashMap<>(versions);
+        next.put(userId, version);
+        versions = next;
+    }
+}
@@ -0,0 +1,173 @@
+package com.rbu.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+// Trending counters kept from order events: orders today (IST day), orders in the last 60 minutes
+// (per-item ring of minute buckets) and an exponentially decayed "hot now" score.
+@Service
+public class TrendingService {
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    public enum Window { TODAY, HOUR, HOT }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.trending.hot-half-life-minutes:20}")
+    private double hotHalfLifeMinutes;
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private volatile DayCounts today = new DayCounts(LocalDate.now(IST));
+    private final ConcurrentHashMap<Long, MinuteRing> lastHour = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, DecayedScore> hot = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            ZonedDateTime now = ZonedDateTime.now(clock.withZone(IST));
+            ZonedDateTime from = now.toLocalDate().atStartOfDay(IST);
+            if (now.minusMinutes(60).isBefore(from)) from = now.minusMinutes(60);
+            // order_time is written in the JVM zone
+            LocalDateTime fromLocal = from.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            int[] rows = {0};
+            jdbcTemplate.query("SELECT o.order_time, oi.food_item_id FROM orders o JOIN order_items oi ON oi.order_id = o.id "
+                            + "WHERE o.order_time >= ? AND o.status <> 'CANCELLED'",
+                    rs -> {
+                        record(rs.getLong(2), rs.getTimestamp(1).toLocalDateTime(), 1);
+                        rows[0]++;
+                    }, fromLocal);
+            log.info("Trending counters seeded from {} order lines", rows[0]);
+        } catch (Exception e) {
+            log.warn("Could not seed trending counters: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        LocalDateTime orderTime = event.getOrderTime() != null ? event.getOrderTime() : LocalDateTime.now(clock);
+        for (Long id : new LinkedHashSet<>(event.getItemIds())) {
+            record(id, orderTime, event.getDelta());
+        }
+    }
+
+    public List<Long> topIds(Window window, int limit) {
+        long nowMillis = clock.millis();
+        switch (window) {
+            case TODAY: {
+                DayCounts day = currentDay();
+                return top(day.counts.keySet(), id -> day.counts.get(id).sum(), limit);
+            }
+            case HOUR: {
+                long nowMinute = nowMillis / 60_000L;
+                return top(lastHour.keySet(), id -> lastHour.get(id).sum(nowMinute), limit);
+            }
+            default:
+                return top(hot.keySet(), id -> hot.get(id).valueAt(nowMillis, decayPerMilli()), limit);
+        }
+    }
+
+    private void record(Long itemId, LocalDateTime orderTime, int delta) {
+        Instant at = orderTime.atZone(ZoneId.systemDefault()).toInstant();
+        long atMillis = at.toEpochMilli();
+        long nowMillis = clock.millis();
+
+        DayCounts day = currentDay();
+        if (at.atZone(IST).toLocalDate().equals(day.date)) {
+            day.counts.computeIfAbsent(itemId, k -> new LongAdder()).add(delta);
+        }
+        if (nowMillis - atMillis < 3_600_000L) {
+            lastHour.computeIfAbsent(itemId, k -> new MinuteRing()).add(atMillis / 60_000L, delta);
+        }
+        // A cancellation removes the order's contribution as it has decayed by now
+        double weight = delta * Math.exp(-decayPerMilli() * Math.max(0, nowMillis - atMillis));
+        hot.computeIfAbsent(itemId, k -> new DecayedScore()).add(weight, nowMillis, decayPerMilli());
+    }
+
+    // Rolls the "today" counters over at IST midnight; checked on every read and write
+    private DayCounts currentDay() {
+        LocalDate date = LocalDate.now(clock.withZone(IST));
+        DayCounts day = today;
+        if (day.date.equals(date)) return day;
+        synchronized (this) {
+            if (!today.date.equals(date)) today = new DayCounts(date);
+            return today;
+        }
+    }
+
+    private double decayPerMilli() {
+        return Math.log(2) / (hotHalfLifeMinutes * 60_000.0);
+    }
+
+    private static List<Long> top(Set<Long> ids, ToDoubleFunction<Long> score, int limit) {
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Long id : ids) {
+            double s = score.applyAsDouble(id);
+            if (s <= 1e-9) continue;
+            heap.offer(Map.entry(id, s));
+            if (heap.size() > limit) heap.poll();
+        }
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) ranked.add(heap.poll().getKey());
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    private static class DayCounts {
+        private final LocalDate date;
+        private final ConcurrentHashMap<Long, LongAdder> counts = new ConcurrentHashMap<>();
+
+        DayCounts(LocalDate date) { this.date = date; }
+    }
+
+    // 60 one-minute buckets; a bucket is reset lazily when its minute comes round again
+    private static class MinuteRing {
+        private final int[] counts = new int[60];
+        private final long[] minutes = new long[60];
+
+        synchronized void add(long minute, int delta) {
+            int i = (int) (minute % 60);
+            if (minutes[i] != minute) {
+                if (delta < 0) return; // the bucket this order landed in has already expired
+                minutes[i] = minute;
+                counts[i] = 0;
+            }
+            counts[i] += delta;
+        }
+
+        synchronized long sum(long nowMinute) {
+            long total = 0;
+            for (int i = 0; i < 60; i++) {
+                if (nowMinute - minutes[i] < 60) total += counts[i];
+            }
+            return total;
+        }
+    }
+
+    private static class DecayedScore {
+        private double value;
+        private long updatedAt;
+
+        synchronized void add(double weight, long nowMillis, double lambda) {
+            value = Math.max(0, valueAt(nowMillis, lambda) + weight);
+            updatedAt = nowMillis;
+        }
+
+        synchronized double valueAt(long nowMillis, double lambda) {
+            return value * Math.exp(-lambda * Math.max(0, nowMillis - updatedAt));
+        }
+    }
+}
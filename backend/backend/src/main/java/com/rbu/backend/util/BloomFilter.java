@@ -0,0 +1,74 @@
+package com.rbu.backend.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size Bloom filter over strings. Bits are only ever set, so add and mightContain are safe to call
+// concurrently without locks; a "false" answer is definite, a "true" one has to be confirmed elsewhere.
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final int numBits;
+    private final int numHashes;
+    private final int expectedEntries;
+    private final AtomicInteger added = new AtomicInteger();
+
+    public BloomFilter(int expectedEntries, double falsePositiveRate) {
+        this.expectedEntries = Math.max(1, expectedEntries);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-this.expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.numBits = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 64, bits));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / this.expectedEntries * ln2));
+        this.words = new AtomicLongArray((numBits + 63) >>> 6);
+    }
+
+    public void add(String key) {
+        long h = hash(key);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = index(h1 + i * h2);
+            long mask = 1L << bit;
+            words.getAndAccumulate(bit >>> 6, mask, (a, b) -> a | b);
+        }
+        added.incrementAndGet();
+    }
+
+    public boolean mightContain(String key) {
+        long h = hash(key);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = index(h1 + i * h2);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // Past this the false positive rate climbs above what the filter was sized for
+    public boolean isSaturated() {
+        return added.get() > expectedEntries;
+    }
+
+    public int getAdded() {
+        return added.get();
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % numBits;
+    }
+
+    // FNV-1a over the chars, then the murmur3 finaliser to spread the bits over both halves
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,86 @@
+package com.rbu.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Hashed timing wheel for many short-lived timeouts. Scheduling is O(1); each tick only looks at one slot.
+// Timeouts that are more than one revolution away carry a round count and are skipped until it hits zero.
+// Tasks run on the single ticker thread and should be cheap (e.g. a conditional map remove).
+public class HashedTimingWheel {
+    private final long tickMillis;
+    private final int mask;
+    private final ArrayDeque<Timeout>[] slots;
+    private final ScheduledExecutorService ticker;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) slots[i] = new ArrayDeque<>();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void schedule(Runnable task, long delayMillis) {
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        synchronized (this) {
+            int slot = (int) ((currentTick + ticks) & mask);
+            slots[slot].add(new Timeout(task, (ticks - 1) / slots.length));
+        }
+    }
+
+    public synchronized int pending() {
+        int n = 0;
+        for (ArrayDeque<Timeout> slot : slots) n += slot.size();
+        return n;
+    }
+
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        List<Runnable> due = new ArrayList<>();
+        synchronized (this) {
+            currentTick++;
+            for (Iterator<Timeout> it = slots[(int) (currentTick & mask)].iterator(); it.hasNext(); ) {
+                Timeout t = it.next();
+                if (t.rounds > 0) {
+                    t.rounds--;
+                } else {
+                    it.remove();
+                    due.add(t.task);
+                }
+            }
+        }
+        for (Runnable task : due) {
+            try {
+                task.run();
+            } catch (RuntimeException ignored) {
+                // one bad task must not stop the ticker
+            }
+        }
+    }
+
+    private static class Timeout {
+        private final Runnable task;
+        private long rounds;
+
+        Timeout(Runnable task, long rounds) {
+            this.task = task;
+            this.rounds = rounds;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.rbu.backend.util;
+
+import java.util.Arrays;
+
+// Open-addressing int -> int counter with linear probing. Keys must be non-zero (0 marks an empty slot).
+// Not thread-safe; callers synchronize on the instance.
+public class IntCountMap {
+    public interface Visitor {
+        void visit(int key, int count);
+    }
+
+    private int[] keys;
+    private int[] counts;
+    private int size;
+
+    public IntCountMap() {
+        this(8);
+    }
+
+    public IntCountMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(expected * 2 - 1, 7)) << 1;
+        keys = new int[capacity];
+        counts = new int[capacity];
+    }
+
+    // Adds delta to key's count and returns the new count
+    public int add(int key, int delta) {
+        if (key == 0) throw new IllegalArgumentException("key 0 is reserved");
+        int slot = find(key);
+        if (keys[slot] == key) {
+            counts[slot] += delta;
+            return counts[slot];
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            grow();
+            slot = find(key);
+        }
+        keys[slot] = key;
+        counts[slot] = delta;
+        size++;
+        return delta;
+    }
+
+    public int get(int key) {
+        int slot = find(key);
+        return keys[slot] == key ? counts[slot] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) visitor.visit(keys[i], counts[i]);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    // Drops keys whose count went back to zero while rehashing
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldCounts[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                size++;
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
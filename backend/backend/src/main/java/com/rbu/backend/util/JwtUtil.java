@@ -1,51 +1,91 @@
 package com.rbu.backend.util;
 
+import com.rbu.backend.Entities.User;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
     private final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("rbu-smart-canteen-secret-key-256-bits-long".getBytes());
     private final long EXPIRATION = 1000 * 60 * 60 * 10; // 10 hours
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String VERSION_CLAIM = "ver";
+
+    // Parsers are immutable and thread-safe, so one is built up front instead of per call
+    private final JwtParser parser = Jwts.parser().verifyWith(SECRET_KEY).build();
+    private final VerifiedTokenCache cache;
+
+    public JwtUtil(@Value("${app.jwt.cache-size:10000}") int cacheSize) {
+        this.cache = new VerifiedTokenCache(cacheSize);
+    }
+
+    // Verifies signature and expiry once per distinct token; throws JwtException for bad or expired tokens
+    public Claims verify(String token) {
+        String digest = digest(token);
+        Claims claims = cache.get(digest, System.currentTimeMillis());
+        if (claims != null) return claims;
+        claims = parser.parseSignedClaims(token).getPayload();
+        cache.put(digest, claims);
+        return claims;
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(SECRET_KEY)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    public String generateToken(String username) {
+    // Roles, user id and token version travel in the token so requests can be authenticated without a user lookup
+    public String generateToken(User user) {
         return Jwts.builder()
-                .subject(username)
+                .subject(user.getUsername())
+                .claim(ROLES_CLAIM, new ArrayList<>(user.getRoles()))
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(VERSION_CLAIM, user.getTokenVersion())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION))
                 .signWith(SECRET_KEY)
                 .compact();
     }
 
+    // verify() has already rejected expired tokens, so only the subject is left to compare
     public boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return username.equals(extractUsername(token));
+    }
+
+    public Map<String, Object> cacheStats() {
+        return cache.stats();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.cache-purge-interval-ms:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired(System.currentTimeMillis());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.rbu.backend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free call statistics: counts, errors and a fixed-bucket latency histogram.
+// Percentiles are read off the histogram, so they are upper bounds at bucket resolution.
+public class LatencyRecorder {
+    private static final long[] BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000};
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalMs = new LongAdder();
+    private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+
+    public LatencyRecorder() {
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long elapsedNanos, boolean error) {
+        long ms = elapsedNanos / 1_000_000;
+        calls.increment();
+        if (error) errors.increment();
+        totalMs.add(ms);
+        maxMs.accumulate(ms);
+        int i = 0;
+        while (i < BOUNDS_MS.length && ms > BOUNDS_MS[i]) i++;
+        buckets[i].increment();
+    }
+
+    public long getCalls() { return calls.sum(); }
+    public long getErrors() { return errors.sum(); }
+    public long getTotalMs() { return totalMs.sum(); }
+
+    public Map<String, Object> snapshot() {
+        long n = calls.sum();
+        long e = errors.sum();
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) counts[i] = buckets[i].sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", n);
+        stats.put("errors", e);
+        stats.put("errorRate", n == 0 ? 0.0 : (double) e / n);
+        stats.put("meanMs", n == 0 ? 0.0 : (double) totalMs.sum() / n);
+        stats.put("p50Ms", percentile(counts, 0.50));
+        stats.put("p95Ms", percentile(counts, 0.95));
+        stats.put("p99Ms", percentile(counts, 0.99));
+        stats.put("maxMs", maxMs.get());
+        return stats;
+    }
+
+    private long percentile(long[] counts, double q) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i < BOUNDS_MS.length ? BOUNDS_MS[i] : maxMs.get();
+        }
+        return maxMs.get();
+    }
+}
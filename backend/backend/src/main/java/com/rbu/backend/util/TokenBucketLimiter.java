@@ -0,0 +1,64 @@
+package com.rbu.backend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Token buckets per key, split over lock stripes so unrelated keys don't contend.
+// Each stripe keeps at most maxKeysPerStripe buckets; the least recently used one is dropped first,
+// which only ever makes a key look fresh again.
+public class TokenBucketLimiter {
+    private final double capacity;
+    private final double refillPerNano;
+    private final Stripe[] stripes;
+
+    public TokenBucketLimiter(int capacity, double refillPerSecond, int stripeCount, int maxKeysPerStripe) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe(maxKeysPerStripe);
+    }
+
+    // Takes one token; returns 0 when allowed, otherwise the milliseconds until a token is available
+    public long tryAcquire(String key) {
+        int h = key.hashCode();
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+        long now = System.nanoTime();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefill) * refillPerNano);
+            bucket.lastRefill = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / refillPerNano / 1_000_000.0);
+        }
+    }
+
+    private static class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+
+    private static class Stripe {
+        private final LinkedHashMap<String, Bucket> buckets;
+
+        Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+}
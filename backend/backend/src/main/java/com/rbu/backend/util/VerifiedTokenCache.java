@@ -0,0 +1,96 @@
+package com.rbu.backend.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU of tokens whose signature has already been checked, keyed by the token's SHA-256 digest.
+// An entry is only served until the token's own expiry; the map is small enough that one lock is fine.
+public class VerifiedTokenCache {
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= VerifiedTokenCache.this.maxEntries) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public synchronized Claims get(String digest, long nowMillis) {
+        Entry e = entries.get(digest);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        if (e.expiresAt <= nowMillis) {
+            entries.remove(digest);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return e.claims;
+    }
+
+    public synchronized void put(String digest, Claims claims) {
+        if (claims.getExpiration() == null) return; // never cache tokens without an expiry
+        entries.put(digest, new Entry(claims, claims.getExpiration().getTime()));
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int purgeExpired(long nowMillis) {
+        int removed = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            if (it.next().expiresAt <= nowMillis) {
+                it.remove();
+                removed++;
+            }
+        }
+        expirations.add(removed);
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        return stats;
+    }
+
+    private static class Entry {
+        private final Claims claims;
+        private final long expiresAt;
+
+        Entry(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
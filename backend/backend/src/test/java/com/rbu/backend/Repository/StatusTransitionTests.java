@@ -0,0 +1,152 @@
+package com.rbu.backend.Repository;
+
+import com.rbu.backend.Entities.Order;
+import com.rbu.backend.Entities.OrderStatus;
+import com.rbu.backend.Entities.Payment;
+import com.rbu.backend.Entities.PaymentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against H2; each transition commits on its own so the threads really race
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        // schema.sql / data.sql target PostgreSQL
+        "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatusTransitionTests {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 25;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @AfterEach
+    void cleanUp() {
+        paymentRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentOrderTransitionsHaveExactlyOneWinner() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Long id = newOrder().getId();
+            // Staff "start preparing" races a student cancel, which is only allowed from PLACED
+            List<OrderStatus> targets = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                targets.add(i % 2 == 0 ? OrderStatus.PREPARING : OrderStatus.CANCELLED);
+            }
+            List<OrderStatus> winners = race(targets, to -> orderRepository.transition(id, List.of("PLACED"), to.name(),
+                    null, to.isFinal() ? LocalDateTime.now() : null) == 1);
+
+            assertEquals(1, winners.size(), "round " + round);
+            Order order = orderRepository.findById(id).orElseThrow();
+            assertEquals(winners.get(0).name(), order.getStatus());
+            assertEquals(1, order.getVersion());
+            assertEquals(winners.get(0) == OrderStatus.CANCELLED, order.getCompletedTime() != null);
+        }
+    }
+
+    @Test
+    void concurrentPaymentConfirmationsApplyOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Long id = newPayment(newOrder()).getId();
+            List<String> transactionIds = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) transactionIds.add("pay_" + i);
+            List<String> winners = race(transactionIds, txn -> paymentRepository.markSucceeded(id,
+                    PaymentStatus.SUCCESS.sources(), txn, LocalDateTime.now()) == 1);
+
+            assertEquals(1, winners.size(), "round " + round);
+            Payment payment = paymentRepository.findById(id).orElseThrow();
+            assertEquals("SUCCESS", payment.getPaymentStatus());
+            assertEquals(winners.get(0), payment.getTransactionId());
+            assertEquals(1, payment.getVersion());
+            // SUCCESS is terminal
+            assertEquals(0, paymentRepository.transition(id, PaymentStatus.FAILED.sources(), "FAILED"));
+        }
+    }
+
+    @Test
+    void illegalTransitionLeavesRowUntouched() {
+        Long id = newOrder().getId();
+        OrderStatus ready = OrderStatus.READY;
+        assertEquals(0, orderRepository.transition(id, ready.sources(), ready.name(), LocalDateTime.now(), null));
+        Order order = orderRepository.findById(id).orElseThrow();
+        assertEquals("PLACED", order.getStatus());
+        assertEquals(0, order.getVersion());
+        assertNull(order.getReadyTime());
+    }
+
+    @Test
+    void staleEntitySaveIsRejectedAfterConditionalUpdate() {
+        Order stale = newOrder();
+        OrderStatus preparing = OrderStatus.PREPARING;
+        assertEquals(1, orderRepository.transition(stale.getId(), preparing.sources(), preparing.name(), null, null));
+
+        stale.setStatus("CANCELLED");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderRepository.save(stale));
+        assertEquals("PREPARING", orderRepository.findById(stale.getId()).orElseThrow().getStatus());
+    }
+
+    private <T> List<T> race(List<T> inputs, Predicate<T> attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(inputs.size());
+        CyclicBarrier start = new CyclicBarrier(inputs.size());
+        List<T> winners = new CopyOnWriteArrayList<>();
+        AtomicInteger errors = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (T input : inputs) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        start.await();
+                        if (attempt.test(input)) winners.add(input);
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, errors.get());
+        return winners;
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setItems(List.of());
+        order.setTotalAmount(120.0);
+        order.setStatus(OrderStatus.PLACED.name());
+        order.setOrderTime(LocalDateTime.now());
+        return orderRepository.save(order);
+    }
+
+    private Payment newPayment(Order order) {
+        Payment payment = new Payment();
+        payment.setOrder(order);
+        payment.setPaymentMethod("RAZORPAY");
+        payment.setPaymentStatus(PaymentStatus.PENDING.name());
+        payment.setGatewayOrderId("order_" + order.getId());
+        payment.setPaymentTime(LocalDateTime.now());
+        return paymentRepository.save(payment);
+    }
+}
@@ -0,0 +1,70 @@
+package com.rbu.backend.service;
+
+import com.rbu.backend.Entities.OrderStatus;
+import com.rbu.backend.util.BloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// In-memory index only; the background flush is stubbed out
+class CouponRedemptionServiceTests {
+    private CouponService couponService;
+    private CouponRedemptionService service;
+
+    @BeforeEach
+    void setUp() {
+        couponService = new CouponService();
+        ReflectionTestUtils.setField(couponService, "secret", "test-secret");
+        couponService.init();
+        TransactionTemplate tx = mock(TransactionTemplate.class);
+        when(tx.execute(any())).thenReturn(List.of());
+
+        service = new CouponRedemptionService();
+        ReflectionTestUtils.setField(service, "couponService", couponService);
+        ReflectionTestUtils.setField(service, "transactionTemplate", tx);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "bloom", new BloomFilter(1000, 0.01));
+        ReflectionTestUtils.setField(service, "ready", true);
+    }
+
+    @Test
+    void unpaidOrdersAreNotRedeemable() {
+        String code = couponService.codeFor(7);
+        assertEquals(CouponRedemptionService.Result.Status.NOT_REDEEMABLE, service.redeem(code, "staff").getStatus());
+    }
+
+    @Test
+    void paidOrdersRedeemOnce() {
+        String code = couponService.codeFor(7);
+        service.onOrderStatus(new OrderStatusEvent(7L, OrderStatus.PREPARING));
+        service.onOrderStatus(new OrderStatusEvent(7L, OrderStatus.READY));
+
+        CouponRedemptionService.Result first = service.redeem(code, "staff");
+        assertEquals(CouponRedemptionService.Result.Status.REDEEMED, first.getStatus());
+        assertEquals(7L, first.getOrderId());
+        assertEquals(CouponRedemptionService.Result.Status.ALREADY_REDEEMED, service.redeem(code, "staff").getStatus());
+    }
+
+    @Test
+    void finishedOrdersLeaveTheIndex() {
+        service.onOrderStatus(new OrderStatusEvent(7L, OrderStatus.PREPARING));
+        service.onOrderStatus(new OrderStatusEvent(7L, OrderStatus.CANCELLED));
+        service.onOrderStatus(new OrderStatusEvent(8L, OrderStatus.PREPARING));
+        service.onOrderStatus(new OrderStatusEvent(8L, OrderStatus.COMPLETED));
+
+        assertEquals(CouponRedemptionService.Result.Status.NOT_REDEEMABLE,
+                service.redeem(couponService.codeFor(7), "staff").getStatus());
+        assertEquals(CouponRedemptionService.Result.Status.NOT_REDEEMABLE,
+                service.redeem(couponService.codeFor(8), "staff").getStatus());
+    }
+}
@@ -0,0 +1,74 @@
+package com.rbu.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponServiceTests {
+    private CouponService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CouponService();
+        ReflectionTestUtils.setField(service, "secret", "test-secret");
+        service.init();
+        // As if the startup scan found legacy codes up to order 10
+        ReflectionTestUtils.setField(service, "legacyMaxOrderId", new AtomicLong(10));
+    }
+
+    @Test
+    void derivedCodesKeepTheExistingFormat() {
+        String code = service.codeFor(42);
+        assertTrue(code.matches("RBU-42-[A-HJ-NP-Z2-9]{6}"), code);
+        assertEquals(code, service.codeFor(42));
+        assertNotEquals(code, service.codeFor(43));
+        assertEquals(42, CouponService.orderIdOf(code));
+    }
+
+    @Test
+    void codesDependOnTheSecret() {
+        CouponService other = new CouponService();
+        ReflectionTestUtils.setField(other, "secret", "another-secret");
+        other.init();
+        assertNotEquals(service.codeFor(42), other.codeFor(42));
+    }
+
+    @Test
+    void forgedCodesAreRejectedInMemory() {
+        String code = service.codeFor(42);
+        assertTrue(service.isAuthentic(code));
+        String forged = code.substring(0, code.length() - 1) + (code.endsWith("A") ? "B" : "A");
+        assertFalse(service.isAuthentic(forged));
+        assertFalse(service.isAuthentic("RBU-42-ABC"));
+        assertFalse(service.isAuthentic("XYZ-42-ABCDEF"));
+        assertFalse(service.isAuthentic("RBU-abc-ABCDEF"));
+        assertFalse(service.isAuthentic(null));
+    }
+
+    @Test
+    void missingSecretFailsOutsideTheDevProfile() {
+        CouponService prod = new CouponService();
+        ReflectionTestUtils.setField(prod, "secret", "");
+        ReflectionTestUtils.setField(prod, "environment", new MockEnvironment());
+        assertThrows(IllegalStateException.class, prod::init);
+
+        CouponService dev = new CouponService();
+        ReflectionTestUtils.setField(dev, "secret", "");
+        MockEnvironment devEnvironment = new MockEnvironment();
+        devEnvironment.setActiveProfiles("dev");
+        ReflectionTestUtils.setField(dev, "environment", devEnvironment);
+        dev.init();
+        assertTrue(dev.codeFor(42).startsWith("RBU-42-"));
+    }
+
+    @Test
+    void legacyOrdersFallBackToTheDatabase() {
+        assertTrue(service.isAuthentic("RBU-7-QWERTY"));
+        assertFalse(service.isAuthentic("RBU-11-QWERTY"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.rbu.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailOutboxDispatcherTests {
+    private FakeSmtpServer smtp;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new FakeSmtpServer();
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtp.port());
+        sender.getJavaMailProperties().setProperty("mail.debug", "true");
+        sender.getJavaMailProperties().setProperty("mail.smtp.from", "canteen@rknec.edu");
+
+        dispatcher = new EmailOutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "mailSender", sender);
+        ReflectionTestUtils.setField(dispatcher, "backoffBaseSeconds", 30L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxSeconds", 3600L);
+        dispatcher.configureTransport();
+        assertEquals("false", sender.getJavaMailProperties().getProperty("mail.debug"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dispatcher.shutdown();
+        smtp.close();
+    }
+
+    @Test
+    void sendsWholeBatchOverOneConnection() throws Exception {
+        Map<Long, String> failures = dispatcher.sendBatch(List.of(
+                message(1, "a@rknec.edu"), message(2, "b@rknec.edu"), message(3, "c@rknec.edu")));
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        smtp.awaitMessages(3);
+        assertEquals(1, smtp.connections.get());
+        assertEquals(List.of("a@rknec.edu", "b@rknec.edu", "c@rknec.edu"), smtp.recipients);
+    }
+
+    @Test
+    void reportsRejectedRecipientsIndividually() throws Exception {
+        Map<Long, String> failures = dispatcher.sendBatch(List.of(
+                message(1, "a@rknec.edu"), message(2, "reject@rknec.edu"), message(3, "c@rknec.edu")));
+
+        assertEquals(Map.of(2L, failures.get(2L)), failures);
+        smtp.awaitMessages(2);
+        assertEquals(List.of("a@rknec.edu", "c@rknec.edu"), smtp.recipients);
+    }
+
+    @Test
+    void failsWholeBatchWhenServerIsDown() throws Exception {
+        smtp.close();
+        Map<Long, String> failures = dispatcher.sendBatch(List.of(message(1, "a@rknec.edu"), message(2, "b@rknec.edu")));
+        assertEquals(2, failures.size());
+    }
+
+    @Test
+    void backoffGrowsAndIsCapped() {
+        assertTrue(dispatcher.backoff(1).compareTo(Duration.ofSeconds(30)) >= 0);
+        assertTrue(dispatcher.backoff(1).compareTo(Duration.ofSeconds(38)) < 0);
+        assertTrue(dispatcher.backoff(3).compareTo(Duration.ofSeconds(120)) >= 0);
+        assertTrue(dispatcher.backoff(30).compareTo(Duration.ofSeconds(3600 + 901)) < 0);
+    }
+
+    private static EmailOutboxDispatcher.OutboxMessage message(long id, String to) {
+        return new EmailOutboxDispatcher.OutboxMessage(id, to, "Your RBU Smart Canteen OTP", "Your OTP is: 123456", 1);
+    }
+
+    // Just enough SMTP to accept mail; recipients starting with "reject" get a 550
+    private static class FakeSmtpServer implements Closeable {
+        private final ServerSocket server = new ServerSocket(0);
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        FakeSmtpServer() throws IOException {
+            Thread t = new Thread(this::acceptLoop, "fake-smtp");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        void awaitMessages(int n) throws InterruptedException {
+            for (int i = 0; i < 100 && recipients.size() < n; i++) Thread.sleep(20);
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    connections.incrementAndGet();
+                    converse(socket);
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            reply(out, "220 localhost ESMTP");
+            String rcpt = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String cmd = line.toUpperCase();
+                if (cmd.startsWith("EHLO") || cmd.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (cmd.startsWith("RCPT TO:")) {
+                    String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    if (address.startsWith("reject")) {
+                        reply(out, "550 No such user");
+                    } else {
+                        rcpt = address;
+                        reply(out, "250 OK");
+                    }
+                } else if (cmd.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // message content is not inspected
+                    }
+                    recipients.add(rcpt);
+                    reply(out, "250 OK");
+                } else if (cmd.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK"); // MAIL FROM, RSET, NOOP
+                }
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.rbu.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTests {
+
+    @Test
+    void hasNoFalseNegativesAndRoughlyTheConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.add("RBU-" + i + "-ABCDEF");
+        for (int i = 0; i < 10_000; i++) assertTrue(filter.mightContain("RBU-" + i + "-ABCDEF"));
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain("RBU-" + i + "-ABCDEF")) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int base = t * 10_000;
+            pool.execute(() -> {
+                for (int i = base; i < base + 10_000; i++) filter.add("code-" + i);
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        for (int i = 0; i < 80_000; i++) assertTrue(filter.mightContain("code-" + i), "code-" + i);
+        assertEquals(80_000, filter.getAdded());
+    }
+}
@@ -0,0 +1,55 @@
+package com.rbu.benchmarks;
+
+import com.rbu.backend.Repository.AnalyticsSettingsRepository;
+import com.rbu.backend.Repository.OrderRepository;
+import com.rbu.backend.service.AnalyticsService;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Dashboard aggregations over the full order history (findAll served from memory)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class AnalyticsBenchmark {
+    @Param({"10000", "100000", "1000000", "5000000"})
+    public int orders;
+
+    private AnalyticsService analyticsService;
+
+    @Setup
+    public void setUp() {
+        Dataset data = Dataset.generate(orders);
+        analyticsService = new AnalyticsService();
+        Fakes.inject(analyticsService, "orderRepository", Fakes.repository(OrderRepository.class,
+                Map.of("findAll", args -> data.orders)));
+        Fakes.inject(analyticsService, "analyticsSettingsRepository", Fakes.repository(AnalyticsSettingsRepository.class,
+                Map.of("findById", args -> Optional.empty())));
+    }
+
+    @Benchmark
+    public Map<String, Long> peakHours() {
+        return analyticsService.getPeakHours();
+    }
+
+    @Benchmark
+    public Map<String, Long> dailyOrders() {
+        return analyticsService.getDailyOrders(7);
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueTrend() {
+        return analyticsService.getRevenueTrend(30);
+    }
+
+    @Benchmark
+    public double averagePreparationTime() {
+        return analyticsService.getAveragePreparationTime();
+    }
+}
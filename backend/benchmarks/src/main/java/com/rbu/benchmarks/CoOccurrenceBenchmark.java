@@ -0,0 +1,89 @@
+package com.rbu.benchmarks;
+
+import com.rbu.backend.Entities.FoodItem;
+import com.rbu.backend.Entities.Order;
+import com.rbu.backend.Repository.FoodItemRepository;
+import com.rbu.backend.service.CoOccurrenceService;
+import com.rbu.backend.service.OrderEvent;
+import com.rbu.backend.service.RecommendationService;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// "Frequently ordered with": matrix lookups through RecommendationService, and the per-order update cost
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class CoOccurrenceBenchmark {
+    @Param({"10000", "100000", "1000000", "5000000"})
+    public int orders;
+
+    private Dataset data;
+    private CoOccurrenceService coOccurrenceService;
+    private RecommendationService recommendationService;
+    private List<OrderEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        data = Dataset.generate(orders);
+        events = new ArrayList<>(orders);
+        for (Order order : data.orders) {
+            List<Long> itemIds = order.getItems().stream().map(FoodItem::getId).toList();
+            events.add(new OrderEvent(OrderEvent.Type.PLACED, order.getId(), null, itemIds, order.getOrderTime()));
+        }
+        coOccurrenceService = seeded();
+        recommendationService = new RecommendationService();
+        Fakes.inject(recommendationService, "coOccurrenceService", coOccurrenceService);
+        Fakes.inject(recommendationService, "foodItemRepository", Fakes.repository(FoodItemRepository.class,
+                Map.of("findAllById", args -> {
+                    List<FoodItem> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        FoodItem item = data.menuById.get(id);
+                        if (item != null) found.add(item);
+                    }
+                    return found;
+                })));
+    }
+
+    // Same path as the startup seed, one event per historical order
+    private CoOccurrenceService seeded() {
+        CoOccurrenceService service = new CoOccurrenceService();
+        for (OrderEvent event : events) service.onOrderEvent(event);
+        return service;
+    }
+
+    @Benchmark
+    public List<FoodItem> frequentlyOrderedWith() {
+        long id = 1 + (next++ % Dataset.MENU_SIZE);
+        return recommendationService.getFrequentlyOrderedWith(id, 5);
+    }
+
+    @Benchmark
+    public List<Long> topNeighbors() {
+        long id = 1 + (next++ % Dataset.MENU_SIZE);
+        return coOccurrenceService.topNeighbors(id, 5);
+    }
+
+    @Benchmark
+    public void recordOrder() {
+        coOccurrenceService.onOrderEvent(events.get(next++ % events.size()));
+    }
+
+    // Whole-history rebuild, as at startup
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 3)
+    public CoOccurrenceService seed() {
+        return seeded();
+    }
+}
@@ -0,0 +1,99 @@
+package com.rbu.benchmarks;
+
+import com.rbu.backend.Entities.FoodItem;
+import com.rbu.backend.Entities.Order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Synthetic order history, deterministic for a given size: a fixed menu, 1-4 items per order with a
+// popularity skew, orders spread over the last 30 days with a lunch peak, and only the newest few
+// orders still in the kitchen queue (as at the canteen, whatever the history length).
+final class Dataset {
+    static final int MENU_SIZE = 80;
+    static final int DAYS = 30;
+    static final int ACTIVE_ORDERS = 200;
+
+    final List<FoodItem> menu;
+    final Map<Long, FoodItem> menuById;
+    final List<Order> orders;
+
+    private Dataset(List<FoodItem> menu, List<Order> orders) {
+        this.menu = menu;
+        this.menuById = menu.stream().collect(Collectors.toMap(FoodItem::getId, Function.identity()));
+        this.orders = orders;
+    }
+
+    static Dataset generate(int orderCount) {
+        Random random = new Random(42);
+        List<FoodItem> menu = new ArrayList<>(MENU_SIZE);
+        for (int i = 1; i <= MENU_SIZE; i++) {
+            FoodItem item = new FoodItem();
+            item.setId((long) i);
+            item.setName("Item " + i);
+            item.setCategory("Category " + (i % 8));
+            item.setPrice(20 + random.nextInt(16) * 10);
+            item.setEstimatedPrepTime(3 + random.nextInt(13));
+            item.setAvailable(true);
+            menu.add(item);
+        }
+
+        LocalDateTime start = LocalDateTime.now().minusDays(DAYS);
+        long spanMinutes = DAYS * 24L * 60;
+        List<Order> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            // Ids and times increase together; half the orders land in the 12:00-14:00 rush
+            long minute = spanMinutes * i / orderCount;
+            LocalDateTime time = start.plusMinutes(minute);
+            if (random.nextBoolean()) {
+                time = time.withHour(12 + random.nextInt(2)).withMinute(random.nextInt(60));
+            }
+            int basketSize = 1 + random.nextInt(4);
+            List<FoodItem> items = new ArrayList<>(basketSize);
+            double total = 0;
+            for (int j = 0; j < basketSize; j++) {
+                // Squaring skews picks towards the low ids, like a few bestsellers on a long menu
+                double r = random.nextDouble();
+                FoodItem item = menu.get((int) (r * r * MENU_SIZE));
+                items.add(item);
+                total += item.getPrice();
+            }
+
+            Order order = new Order();
+            order.setId(i + 1L);
+            order.setItems(items);
+            order.setTotalAmount(total);
+            order.setOrderTime(time);
+            if (i >= orderCount - ACTIVE_ORDERS) {
+                order.setStatus(random.nextInt(3) == 0 ? "PREPARING" : "PLACED");
+            } else if (random.nextInt(20) == 0) {
+                order.setStatus("CANCELLED");
+            } else {
+                order.setStatus("COMPLETED");
+                order.setCompletedTime(time.plusMinutes(5 + random.nextInt(20)));
+            }
+            orders.add(order);
+        }
+        return new Dataset(menu, orders);
+    }
+
+    // Ids are dense from 1, so no id index is kept (it would dominate memory at 5M orders)
+    Optional<Order> findById(long id) {
+        return id >= 1 && id <= orders.size() ? Optional.of(orders.get((int) (id - 1))) : Optional.empty();
+    }
+
+    // Newest order still in the queue, i.e. the longest wait
+    Order lastActive() {
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            String status = orders.get(i).getStatus();
+            if ("PLACED".equals(status) || "PREPARING".equals(status)) return orders.get(i);
+        }
+        throw new IllegalStateException("No active orders");
+    }
+}
@@ -0,0 +1,43 @@
+package com.rbu.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+// Wiring for services outside Spring: in-memory repository stand-ins and field injection
+final class Fakes {
+    private Fakes() {
+    }
+
+    // Repository proxy answering only the given methods (by name); anything else throws, so a benchmark
+    // never quietly measures a null result
+    @SuppressWarnings("unchecked")
+    static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> methods) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString": return "Fake" + type.getSimpleName();
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                default:
+                    Function<Object[], Object> answer = methods.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not faked");
+                    }
+                    return answer.apply(args);
+            }
+        });
+    }
+
+    // Services use @Autowired fields, so dependencies are set the way Spring would
+    static <T> T inject(T target, String field, Object value) {
+        try {
+            Field f = target.getClass().getDeclaredField(field);
+            f.setAccessible(true);
+            f.set(target, value);
+            return target;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + target.getClass().getSimpleName() + "." + field, e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.rbu.benchmarks;
+
+import com.rbu.backend.Entities.User;
+import com.rbu.backend.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Per-request token checks: a repeat token served from the verified-token cache, and a full
+// signature check (cache size 0, so every call parses and verifies)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtUtil(10000);
+        uncached = new JwtUtil(0);
+        user = new User();
+        user.setId(42L);
+        user.setUsername("student42");
+        user.setRoles(Set.of("USER"));
+        token = cached.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return cached.validateToken(token, "student42");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(user);
+    }
+}
@@ -0,0 +1,52 @@
+package com.rbu.benchmarks;
+
+import com.rbu.backend.Repository.OrderRepository;
+import com.rbu.backend.service.OrderService;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Wait-time estimate for the newest queued order; polled by every open order-tracking page
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class WaitTimeBenchmark {
+    @Param({"10000", "100000", "1000000", "5000000"})
+    public int orders;
+
+    private OrderService orderService;
+    private long targetId;
+    private long finishedId;
+
+    @Setup
+    public void setUp() {
+        Dataset data = Dataset.generate(orders);
+        orderService = new OrderService();
+        Fakes.inject(orderService, "orderRepository", Fakes.repository(OrderRepository.class, Map.of(
+                "findAll", args -> data.orders,
+                "findById", args -> data.findById((Long) args[0]))));
+        targetId = data.lastActive().getId();
+        finishedId = 1L;
+    }
+
+    @Benchmark
+    public long activeOrder() {
+        return orderService.getEstimatedWaitTime(targetId);
+    }
+
+    // Early exit for an order that is no longer in the queue
+    @Benchmark
+    public long finishedOrder() {
+        return orderService.getEstimatedWaitTime(finishedId);
+    }
+
+    @Benchmark
+    public long queueSize() {
+        return orderService.getQueueSize();
+    }
+}
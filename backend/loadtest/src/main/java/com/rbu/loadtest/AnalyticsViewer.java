@@ -0,0 +1,32 @@
+package com.rbu.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// An admin with the AdminDashboard analytics tab open: the four charts refresh every 30 s
+final class AnalyticsViewer {
+    private final Simulation sim;
+    private final ApiClient client;
+    private final String username;
+    private String token;
+
+    AnalyticsViewer(Simulation sim, String username) {
+        this.sim = sim;
+        this.client = sim.client;
+        this.username = username;
+    }
+
+    void arrive() {
+        JsonNode login = sim.login(username);
+        if (login == null) return;
+        token = login.path("token").asText();
+        sim.loadAdminDashboard(token);
+        sim.every(this::refresh, 30_000);
+    }
+
+    private void refresh() {
+        client.get("GET /api/analytics/bestsellers", "/api/analytics/bestsellers?limit=3", token);
+        client.get("GET /api/analytics/peak-hours", "/api/analytics/peak-hours", token);
+        client.get("GET /api/analytics/daily-orders", "/api/analytics/daily-orders?days=7", token);
+        client.get("GET /api/analytics/revenue-trend", "/api/analytics/revenue-trend?days=7", token);
+    }
+}
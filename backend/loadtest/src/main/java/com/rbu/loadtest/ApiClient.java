@@ -0,0 +1,103 @@
+package com.rbu.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.rbu.backend.util.LatencyRecorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Blocking JSON client shared by all virtual users. Calls are labelled with the controller's route
+// pattern ("GET /api/orders/{orderId}/wait-time"), the same key the server-side SQL counts use.
+// Any transport failure or status >= 400 counts as an error for the route.
+final class ApiClient {
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ConcurrentHashMap<String, LatencyRecorder> routes = new ConcurrentHashMap<>();
+
+    ApiClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    Response get(String route, String path, String token) {
+        return call(route, "GET", path, null, token);
+    }
+
+    Response post(String route, String path, Object body, String token) {
+        return call(route, "POST", path, body, token);
+    }
+
+    Response put(String route, String path, String token) {
+        return call(route, "PUT", path, null, token);
+    }
+
+    Response call(String route, String method, String path, Object body, String token) {
+        long started = System.nanoTime();
+        Response response;
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(timeout)
+                    .header("Accept", "application/json")
+                    .header("Content-Type", "application/json");
+            if (token != null) request.header("Authorization", "Bearer " + token);
+            request.method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+            HttpResponse<String> raw = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            response = new Response(raw.statusCode(), parse(raw.body()),
+                    raw.headers().firstValueAsLong("Retry-After").orElse(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = Response.FAILED;
+        } catch (Exception e) {
+            response = Response.FAILED;
+        }
+        routes.computeIfAbsent(route, r -> new LatencyRecorder())
+                .record(System.nanoTime() - started, !response.ok());
+        return response;
+    }
+
+    // Bodies that are not JSON (plain-text errors) are dropped
+    private JsonNode parse(String body) {
+        if (body == null || body.isEmpty()) return MissingNode.getInstance();
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    Map<String, LatencyRecorder> getRoutes() {
+        return new TreeMap<>(routes);
+    }
+
+    static final class Response {
+        static final Response FAILED = new Response(-1, MissingNode.getInstance(), 1);
+
+        final int status;
+        final JsonNode body;
+        final long retryAfterSeconds;
+
+        Response(int status, JsonNode body, long retryAfterSeconds) {
+            this.status = status;
+            this.body = body;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 400;
+        }
+    }
+}
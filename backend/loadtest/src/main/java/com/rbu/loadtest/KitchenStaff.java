@@ -0,0 +1,50 @@
+package com.rbu.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// A staff member on the AdminDashboard orders tab: all orders every 10 s. Orders in PREPARING are marked
+// READY once their items' prep time (scaled by --prep-time-scale) has passed since the kitchen first saw
+// them. Staff also run the pickup counters that redeem coupons.
+final class KitchenStaff {
+    private final Simulation sim;
+    private final ApiClient client;
+    private final String username;
+    private String token;
+
+    KitchenStaff(Simulation sim, String username) {
+        this.sim = sim;
+        this.client = sim.client;
+        this.username = username;
+    }
+
+    void arrive() {
+        JsonNode login = sim.login(username);
+        if (login == null) return;
+        token = login.path("token").asText();
+        sim.addCounter(token);
+        sim.loadAdminDashboard(token);
+        sim.every(this::pollOrders, 10_000);
+    }
+
+    private void pollOrders() {
+        ApiClient.Response r = client.get("GET /api/orders", "/api/orders", token);
+        if (!r.ok()) return;
+        long now = System.currentTimeMillis();
+        for (JsonNode order : r.body) {
+            if (!"PREPARING".equals(order.path("status").asText())) continue;
+            long id = order.path("id").asLong();
+            long due = sim.readyAt.computeIfAbsent(id, k -> now + prepMillis(order));
+            if (now >= due && sim.markedReady.add(id)) {
+                if (client.put("PUT /api/orders/{orderId}/status", "/api/orders/" + id + "/status?status=READY", token).ok()) {
+                    sim.markedReadyCount.increment();
+                }
+            }
+        }
+    }
+
+    private long prepMillis(JsonNode order) {
+        long minutes = 0;
+        for (JsonNode item : order.path("items")) minutes += item.path("estimatedPrepTime").asLong();
+        return Math.round(minutes * 60_000 * sim.settings.prepTimeScale);
+    }
+}
@@ -0,0 +1,71 @@
+package com.rbu.loadtest;
+
+import com.rbu.backend.RbuSmartCanteenApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Boots the backend in this JVM against a local database (stub payment gateway, SQL counting added),
+// seeds accounts and menu, and replays a lunch rush: staff and admin dashboards from the start, students
+// arriving over --ramp seconds with a mid-rush peak, everyone polling at the frontend's intervals.
+// Use a dedicated database: the run adds users, menu items, orders and payments.
+public class LunchRushSimulation {
+    private static final Logger log = LoggerFactory.getLogger(LunchRushSimulation.class);
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        log.info("Starting the backend against {}", settings.dbUrl);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RbuSmartCanteenApplication.class, SqlCounting.class)
+                .run(settings.applicationArgs());
+        int exitCode = 0;
+        try {
+            Seeder.seed(context, settings);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            SqlStatementStats sql = context.getBean(SqlStatementStats.class);
+            sql.reset();
+
+            ApiClient client = new ApiClient("http://localhost:" + port, Duration.ofSeconds(settings.requestTimeoutSeconds));
+            Simulation sim = new Simulation(settings, client);
+            log.info("Simulating {} students, {} staff, {} dashboards for {} s (ramp {} s)", settings.students,
+                    settings.staff, settings.dashboards, settings.durationSeconds, settings.rampSeconds);
+            long started = System.nanoTime();
+            for (int i = 1; i <= settings.staff; i++) {
+                sim.after(new KitchenStaff(sim, "lt-staff-" + i)::arrive, 0);
+            }
+            for (int i = 1; i <= settings.dashboards; i++) {
+                sim.after(new AnalyticsViewer(sim, "lt-admin-" + i)::arrive, 0);
+            }
+            for (int i = 1; i <= settings.students; i++) {
+                sim.after(new Student(sim, "lt-student-" + i)::arrive, arrivalDelayMs(settings.rampSeconds));
+            }
+            Thread.sleep(settings.durationSeconds * 1000);
+            sim.stop();
+            double elapsed = (System.nanoTime() - started) / 1e9;
+
+            Map<String, Object> report = Report.build(settings, sim, sql, elapsed);
+            Report.print(report, System.out);
+            if (settings.report != null) {
+                Report.write(report, settings.report);
+                log.info("Report written to {}", settings.report);
+            }
+        } catch (Exception e) {
+            log.error("Load simulation failed", e);
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    // Triangular over the ramp: few students at the start and end, most around the middle
+    private static long arrivalDelayMs(long rampSeconds) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        return Math.round((r.nextDouble() + r.nextDouble()) / 2 * rampSeconds * 1000);
+    }
+}
@@ -0,0 +1,98 @@
+package com.rbu.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rbu.backend.util.LatencyRecorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+// End-of-run summary: client-side throughput and latency per route joined with the server's SQL
+// statements per request for the same route. Percentiles come from LatencyRecorder's fixed buckets,
+// so they are upper bounds (1, 2, 5, 10, 20, 50, 100, 200, 500 ms, ...).
+final class Report {
+    private Report() {
+    }
+
+    static Map<String, Object> build(Settings settings, Simulation sim, SqlStatementStats sql, double elapsedSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("durationSeconds", Math.round(elapsedSeconds));
+        run.put("students", settings.students);
+        run.put("staff", settings.staff);
+        run.put("dashboards", settings.dashboards);
+        run.put("studentsArrived", sim.studentsArrived.sum());
+        run.put("loginFailures", sim.loginFailures.sum());
+        run.put("ordersPlaced", sim.ordersPlaced.sum());
+        run.put("paidRazorpay", sim.paidRazorpay.sum());
+        run.put("paidMock", sim.paidMock.sum());
+        run.put("paymentFailures", sim.paymentFailures.sum());
+        run.put("cancelled", sim.cancelled.sum());
+        run.put("markedReady", sim.markedReadyCount.sum());
+        run.put("collected", sim.collected.sum());
+        report.put("run", run);
+
+        Map<String, Map<String, Object>> serverRoutes = sql.snapshot();
+        Map<String, LatencyRecorder> clientRoutes = sim.client.getRoutes();
+        Map<String, Object> routes = new LinkedHashMap<>();
+        long totalCalls = 0;
+        TreeSet<String> names = new TreeSet<>(clientRoutes.keySet());
+        names.addAll(serverRoutes.keySet());
+        for (String name : names) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            LatencyRecorder latency = clientRoutes.get(name);
+            if (latency != null) {
+                row.putAll(latency.snapshot());
+                row.put("perSecond", latency.getCalls() / elapsedSeconds);
+                totalCalls += latency.getCalls();
+            }
+            Map<String, Object> server = serverRoutes.get(name);
+            if (server != null) {
+                row.put("sqlPerRequest", server.get("perRequest"));
+                row.put("sqlMax", server.get("max"));
+                row.put("sqlTotal", server.get("statements"));
+            }
+            routes.put(name, row);
+        }
+        report.put("routes", routes);
+        report.put("totalRequests", totalCalls);
+        report.put("requestsPerSecond", totalCalls / elapsedSeconds);
+        report.put("backgroundSqlStatements", sql.getBackground());
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    static void print(Map<String, Object> report, PrintStream out) {
+        out.println();
+        out.println("=== Lunch-rush simulation ===");
+        ((Map<String, Object>) report.get("run")).forEach((k, v) -> out.printf("%-18s %s%n", k, v));
+        out.printf("%-18s %d (%.1f/s)%n", "requests", report.get("totalRequests"), (Double) report.get("requestsPerSecond"));
+        out.printf("%-18s %s%n", "background SQL", report.get("backgroundSqlStatements"));
+        out.println();
+        out.printf("%-58s %8s %7s %6s %8s %6s %6s %6s %7s %8s %6s%n",
+                "route", "calls", "req/s", "err", "mean ms", "p50", "p95", "p99", "max", "SQL/req", "SQLmax");
+        ((Map<String, Map<String, Object>>) report.get("routes")).forEach((route, row) -> {
+            boolean client = row.containsKey("calls");
+            boolean server = row.containsKey("sqlPerRequest");
+            out.printf("%-58s %8s %7s %6s %8s %6s %6s %6s %7s %8s %6s%n", route,
+                    client ? row.get("calls") : "-",
+                    client ? String.format("%.2f", (Double) row.get("perSecond")) : "-",
+                    client ? row.get("errors") : "-",
+                    client ? String.format("%.1f", (Double) row.get("meanMs")) : "-",
+                    client ? row.get("p50Ms") : "-",
+                    client ? row.get("p95Ms") : "-",
+                    client ? row.get("p99Ms") : "-",
+                    client ? row.get("maxMs") : "-",
+                    server ? String.format("%.2f", (Double) row.get("sqlPerRequest")) : "-",
+                    server ? row.get("sqlMax") : "-");
+        });
+    }
+
+    static void write(Map<String, Object> report, String path) throws IOException {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(path), report);
+    }
+}
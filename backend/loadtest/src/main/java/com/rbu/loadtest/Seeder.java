@@ -0,0 +1,69 @@
+package com.rbu.loadtest;
+
+import com.rbu.backend.Entities.FoodItem;
+import com.rbu.backend.Entities.User;
+import com.rbu.backend.Repository.FoodItemRepository;
+import com.rbu.backend.Repository.UserRepository;
+import com.rbu.backend.service.FoodItemService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Creates the load-test accounts (lt-student-N, lt-staff-N, lt-admin-N) and tops the menu up to
+// --menu-size available items. Idempotent, so repeated runs against one database reuse the data.
+final class Seeder {
+    private static final Logger log = LoggerFactory.getLogger(Seeder.class);
+    private static final String[] CATEGORIES = {"Breakfast", "Meals", "Snacks", "Chinese", "South Indian", "Beverages"};
+
+    private Seeder() {
+    }
+
+    static void seed(ApplicationContext context, Settings settings) {
+        UserRepository users = context.getBean(UserRepository.class);
+        // One hash for every account; encoding thousands would only slow the setup down
+        String hash = context.getBean(PasswordEncoder.class).encode(settings.password);
+        int created = 0;
+        created += ensureUsers(users, "lt-student-", settings.students, "STUDENT", hash);
+        created += ensureUsers(users, "lt-staff-", settings.staff, "STAFF", hash);
+        created += ensureUsers(users, "lt-admin-", settings.dashboards, "ADMIN", hash);
+
+        FoodItemRepository foodItems = context.getBean(FoodItemRepository.class);
+        FoodItemService foodItemService = context.getBean(FoodItemService.class);
+        int missing = settings.menuSize - foodItems.findByAvailableTrue().size();
+        Random random = new Random(7);
+        for (int i = 1; i <= missing; i++) {
+            FoodItem item = new FoodItem();
+            item.setName("Load test item " + i);
+            item.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            item.setPrice(20 + random.nextInt(13) * 10);
+            item.setEstimatedPrepTime(3 + random.nextInt(13));
+            item.setAvailable(true);
+            foodItemService.createFoodItem(item);
+        }
+        log.info("Seeded {} accounts and {} menu items", created, Math.max(0, missing));
+    }
+
+    private static int ensureUsers(UserRepository users, String prefix, int count, String role, String hash) {
+        List<User> batch = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String username = prefix + i;
+            if (users.findByUsername(username).isPresent()) continue;
+            User user = new User();
+            user.setUsername(username);
+            user.setEmail(username + "@loadtest.local");
+            user.setFullName("Load Test " + role + " " + i);
+            user.setPassword(hash);
+            user.setRoles(Set.of(role));
+            user.setEnabled(true);
+            batch.add(user);
+        }
+        users.saveAll(batch);
+        return batch.size();
+    }
+}
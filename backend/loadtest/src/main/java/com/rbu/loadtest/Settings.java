@@ -0,0 +1,92 @@
+package com.rbu.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Command-line options: --name=value for the harness; --spring.*, --server.*, --app.*, --logging.* and
+// --management.* are passed through to the application.
+final class Settings {
+    String dbUrl = "jdbc:postgresql://localhost:5432/canteen_loadtest";
+    String dbUser = "postgres";
+    String dbPassword = "postgres";
+    int students = 400;
+    int staff = 4;
+    int dashboards = 2;
+    int menuSize = 40;
+    long durationSeconds = 600;
+    long rampSeconds = 300;
+    double razorpayShare = 0.7;
+    double cancelRate = 0.03;
+    long gatewayLatencyMs = 150;
+    // Kitchen prep minutes are replayed at this fraction of real time so a run sees full order lifecycles
+    double prepTimeScale = 0.1;
+    int clientThreads = 256;
+    long requestTimeoutSeconds = 30;
+    String stubSecret = "loadtest_stub_secret";
+    // Fresh per run; coupon codes only need to verify within the run
+    String couponSecret = UUID.randomUUID().toString();
+    String password = "LoadTest#2024";
+    String report;
+    final List<String> appArgs = new ArrayList<>();
+
+    static Settings parse(String[] args) {
+        Settings s = new Settings();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "db-url" -> s.dbUrl = value;
+                case "db-user" -> s.dbUser = value;
+                case "db-password" -> s.dbPassword = value;
+                case "students" -> s.students = Integer.parseInt(value);
+                case "staff" -> s.staff = Integer.parseInt(value);
+                case "dashboards" -> s.dashboards = Integer.parseInt(value);
+                case "menu-size" -> s.menuSize = Integer.parseInt(value);
+                case "duration" -> s.durationSeconds = Long.parseLong(value);
+                case "ramp" -> s.rampSeconds = Long.parseLong(value);
+                case "razorpay-share" -> s.razorpayShare = Double.parseDouble(value);
+                case "cancel-rate" -> s.cancelRate = Double.parseDouble(value);
+                case "gateway-latency-ms" -> s.gatewayLatencyMs = Long.parseLong(value);
+                case "prep-time-scale" -> s.prepTimeScale = Double.parseDouble(value);
+                case "client-threads" -> s.clientThreads = Integer.parseInt(value);
+                case "request-timeout" -> s.requestTimeoutSeconds = Long.parseLong(value);
+                case "report" -> s.report = value;
+                default -> {
+                    if (name.startsWith("spring.") || name.startsWith("server.") || name.startsWith("app.")
+                            || name.startsWith("logging.") || name.startsWith("management.")) {
+                        s.appArgs.add(arg);
+                    } else {
+                        throw new IllegalArgumentException("Unknown option --" + name);
+                    }
+                }
+            }
+        }
+        if (s.staff < 1) throw new IllegalArgumentException("--staff must be at least 1 (staff run the kitchen and the counter)");
+        return s;
+    }
+
+    // Command-line arguments outrank application.properties, so the run never touches the configured database
+    String[] applicationArgs() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + dbUrl,
+                "--spring.datasource.username=" + dbUser,
+                "--spring.datasource.password=" + dbPassword,
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--app.payments.gateway=stub",
+                "--app.payments.stub.secret=" + stubSecret,
+                "--app.payments.stub.latency-ms=" + gatewayLatencyMs,
+                "--app.coupons.secret=" + couponSecret,
+                // Every virtual user logs in from 127.0.0.1
+                "--app.auth.login-ip-burst=1000000",
+                "--app.auth.login-ip-per-second=1000000",
+                "--app.logging.request-sample-rate=0"));
+        args.addAll(appArgs);
+        return args.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,155 @@
+package com.rbu.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// State shared by the virtual users: the HTTP client, one timer pool for every poll loop (browsers'
+// setInterval), the kitchen's view of orders in preparation and the outcome counters.
+final class Simulation {
+    private static final Logger log = LoggerFactory.getLogger(Simulation.class);
+
+    final Settings settings;
+    final ApiClient client;
+    private final ScheduledThreadPoolExecutor timers;
+    private volatile boolean stopping;
+
+    // Kitchen: when each PREPARING order will be done, and which ones a staff member already marked READY
+    final Map<Long, Long> readyAt = new ConcurrentHashMap<>();
+    final Set<Long> markedReady = ConcurrentHashMap.newKeySet();
+    private final List<String> counterTokens = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextCounter = new AtomicInteger();
+    private final AtomicLong paymentSequence = new AtomicLong();
+
+    final LongAdder studentsArrived = new LongAdder();
+    final LongAdder loginFailures = new LongAdder();
+    final LongAdder ordersPlaced = new LongAdder();
+    final LongAdder paidMock = new LongAdder();
+    final LongAdder paidRazorpay = new LongAdder();
+    final LongAdder paymentFailures = new LongAdder();
+    final LongAdder cancelled = new LongAdder();
+    final LongAdder markedReadyCount = new LongAdder();
+    final LongAdder collected = new LongAdder();
+
+    Simulation(Settings settings, ApiClient client) {
+        this.settings = settings;
+        this.client = client;
+        AtomicInteger seq = new AtomicInteger();
+        this.timers = new ScheduledThreadPoolExecutor(settings.clientThreads, r -> {
+            Thread t = new Thread(r, "vu-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.timers.setRemoveOnCancelPolicy(true);
+    }
+
+    // A failing task must not cancel its fixed-rate schedule, so exceptions are logged and swallowed
+    ScheduledFuture<?> every(Runnable task, long periodMs) {
+        return timers.scheduleAtFixedRate(guarded(task), periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    ScheduledFuture<?> after(Runnable task, long delayMs) {
+        return timers.schedule(guarded(task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Runnable guarded(Runnable task) {
+        return () -> {
+            if (stopping) return;
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.debug("Virtual user task failed: {}", e.toString());
+            }
+        };
+    }
+
+    void stop() throws InterruptedException {
+        stopping = true;
+        timers.shutdownNow();
+        timers.awaitTermination(settings.requestTimeoutSeconds + 5, TimeUnit.SECONDS);
+    }
+
+    boolean isStopping() {
+        return stopping;
+    }
+
+    // Login as the frontend does; a 429 or 503 is retried after Retry-After, like a user trying again
+    JsonNode login(String username) {
+        for (int attempt = 0; attempt < 5 && !stopping; attempt++) {
+            ApiClient.Response r = client.post("POST /api/auth/login", "/api/auth/login",
+                    Map.of("username", username, "password", settings.password), null);
+            if (r.ok()) return r.body;
+            if (r.status != 429 && r.status != 503) break;
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(r.retryAfterSeconds));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        loginFailures.increment();
+        return null;
+    }
+
+    // AdminDashboard on mount, for staff and admins alike
+    void loadAdminDashboard(String token) {
+        client.get("GET /api/menu", "/api/menu", token);
+        client.get("GET /api/orders", "/api/orders", token);
+        client.get("GET /api/analytics/bestsellers", "/api/analytics/bestsellers?limit=3", token);
+        client.get("GET /api/analytics/average-prep-time", "/api/analytics/average-prep-time", token);
+        client.get("GET /api/analytics/peak-hours", "/api/analytics/peak-hours", token);
+        client.get("GET /api/analytics/daily-orders", "/api/analytics/daily-orders?days=7", token);
+        client.get("GET /api/analytics/revenue-trend", "/api/analytics/revenue-trend?days=7", token);
+    }
+
+    void addCounter(String staffToken) {
+        counterTokens.add(staffToken);
+    }
+
+    // Pickup counters are staffed round-robin
+    String counterToken() {
+        if (counterTokens.isEmpty()) return null;
+        return counterTokens.get(Math.floorMod(nextCounter.getAndIncrement(), counterTokens.size()));
+    }
+
+    String nextPaymentId() {
+        return "pay_loadtest" + paymentSequence.incrementAndGet();
+    }
+
+    // What the Razorpay checkout would hand back: HMAC-SHA256("orderId|paymentId") under the stub secret
+    String signCheckout(String gatewayOrderId, String paymentId) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(settings.stubSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal((gatewayOrderId + "|" + paymentId).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static long between(long minMs, long maxMs) {
+        return ThreadLocalRandom.current().nextLong(minMs, maxMs + 1);
+    }
+
+    static boolean chance(double p) {
+        return ThreadLocalRandom.current().nextDouble() < p;
+    }
+}
@@ -0,0 +1,114 @@
+package com.rbu.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Added to the application context by the harness only. The pool is wrapped, not replaced: connections
+// handed out are proxies whose statements report every execute* call (a JDBC batch counts once, as one
+// round trip). The filter runs right after request correlation, so security lookups are included.
+@Configuration(proxyBeanMethods = false)
+public class SqlCounting {
+
+    @Bean
+    static SqlStatementStats sqlStatementStats() {
+        return new SqlStatementStats();
+    }
+
+    @Bean
+    static BeanPostProcessor sqlCountingDataSource(SqlStatementStats stats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof CountingDataSource)) {
+                    return new CountingDataSource(ds, stats);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<OncePerRequestFilter> sqlCountingFilter(SqlStatementStats stats) {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                stats.begin();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    stats.record(request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)"), stats.end());
+                }
+            }
+        });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    static class CountingDataSource extends DelegatingDataSource {
+        private final SqlStatementStats stats;
+
+        CountingDataSource(DataSource target, SqlStatementStats stats) {
+            super(target);
+            this.stats = stats;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private Connection wrap(Connection connection) {
+            return (Connection) proxy(Connection.class, connection, (method, result) ->
+                    result instanceof Statement && method.getReturnType().isInterface()
+                            ? proxy(method.getReturnType(), result, (m, r) -> r, true)
+                            : result, false);
+        }
+
+        // Forwards every call; statement proxies count execute* calls
+        private Object proxy(Class<?> type, Object target, ResultMapper mapper, boolean counting) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                switch (method.getName()) {
+                    case "equals": return p == args[0];
+                    case "hashCode": return System.identityHashCode(p);
+                    default:
+                        if (counting && method.getName().startsWith("execute")) stats.statement();
+                        try {
+                            return mapper.map(method, method.invoke(target, args));
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            });
+        }
+
+        private interface ResultMapper {
+            Object map(Method method, Object result);
+        }
+    }
+}
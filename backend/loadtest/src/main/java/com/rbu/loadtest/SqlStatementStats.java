@@ -0,0 +1,77 @@
+package com.rbu.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// JDBC statements per HTTP route. A request opens a per-thread counter; statements run on threads with
+// no open counter (schedulers, outbox and event workers) are counted as background work.
+public class SqlStatementStats {
+    private final ThreadLocal<long[]> current = new ThreadLocal<>();
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+    private final LongAdder background = new LongAdder();
+
+    void begin() {
+        current.set(new long[1]);
+    }
+
+    long end() {
+        long[] counter = current.get();
+        current.remove();
+        return counter == null ? 0 : counter[0];
+    }
+
+    void statement() {
+        long[] counter = current.get();
+        if (counter != null) {
+            counter[0]++;
+        } else {
+            background.increment();
+        }
+    }
+
+    void record(String route, long statements) {
+        routes.computeIfAbsent(route, r -> new Route()).add(statements);
+    }
+
+    // Drops what the application did before the simulation (startup, seeding)
+    public void reset() {
+        routes.clear();
+        background.reset();
+    }
+
+    public long getBackground() {
+        return background.sum();
+    }
+
+    // route -> {requests, statements, perRequest, max}
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        routes.forEach((route, r) -> {
+            long requests = r.requests.sum();
+            long statements = r.statements.sum();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", requests);
+            row.put("statements", statements);
+            row.put("perRequest", requests == 0 ? 0.0 : (double) statements / requests);
+            row.put("max", r.max.get());
+            result.put(route, row);
+        });
+        return result;
+    }
+
+    private static class Route {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void add(long n) {
+            requests.increment();
+            statements.add(n);
+            max.accumulate(n);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.rbu.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One student through the lunch rush, replaying StudentDashboard: login, the page's initial loads, its
+// polls (own orders every 8 s, queue size and ETAs every 10 s), then browse, order, pay (Razorpay
+// checkout against the stub gateway, or the mock payment), wait for READY, and collect at the counter.
+final class Student {
+    private final Simulation sim;
+    private final ApiClient client;
+    private final String username;
+    private final List<ScheduledFuture<?>> polls = new CopyOnWriteArrayList<>();
+    // Paid orders awaiting pickup: order id -> coupon code
+    private final Map<Long, String> coupons = new ConcurrentHashMap<>();
+    private final Set<Long> collecting = ConcurrentHashMap.newKeySet();
+    private volatile List<Long> activeOrders = List.of();
+    private volatile List<Long> menu = List.of();
+    private String token;
+    private long userId;
+
+    Student(Simulation sim, String username) {
+        this.sim = sim;
+        this.client = sim.client;
+        this.username = username;
+    }
+
+    void arrive() {
+        JsonNode login = sim.login(username);
+        if (login == null) return;
+        sim.studentsArrived.increment();
+        token = login.path("token").asText();
+        userId = login.path("id").asLong();
+
+        ApiClient.Response available = client.get("GET /api/menu/available", "/api/menu/available", token);
+        List<Long> ids = new ArrayList<>();
+        available.body.forEach(item -> ids.add(item.path("id").asLong()));
+        menu = ids;
+        pollOrders();
+        client.get("GET /api/analytics/bestsellers", "/api/analytics/bestsellers?limit=3", token);
+        client.get("GET /api/analytics/peak-hours", "/api/analytics/peak-hours", token);
+        client.get("GET /api/recommendations/most-ordered-today", "/api/recommendations/most-ordered-today?limit=5", token);
+
+        polls.add(sim.every(this::pollOrders, 8_000));
+        polls.add(sim.every(this::pollQueue, 10_000));
+        polls.add(sim.every(this::pollEtas, 10_000));
+        sim.after(this::order, Simulation.between(15_000, 60_000));
+    }
+
+    private void pollOrders() {
+        ApiClient.Response r = client.get("GET /api/orders/user/{userId}", "/api/orders/user/" + userId, token);
+        if (!r.ok()) return;
+        List<Long> active = new ArrayList<>();
+        for (JsonNode order : r.body) {
+            long id = order.path("id").asLong();
+            String status = order.path("status").asText();
+            if ("PLACED".equals(status) || "PREPARING".equals(status)) active.add(id);
+            // The READY notification sends the student to the pickup counter
+            if ("READY".equals(status) && coupons.containsKey(id) && collecting.add(id)) {
+                sim.after(() -> collect(id), Simulation.between(5_000, 20_000));
+            }
+        }
+        activeOrders = active;
+    }
+
+    private void pollQueue() {
+        client.get("GET /api/orders/queue-size", "/api/orders/queue-size", token);
+    }
+
+    private void pollEtas() {
+        for (Long id : activeOrders) {
+            client.get("GET /api/orders/{orderId}/wait-time", "/api/orders/" + id + "/wait-time", token);
+        }
+    }
+
+    private void order() {
+        if (menu.isEmpty()) {
+            leave(0);
+            return;
+        }
+        List<Long> shuffled = new ArrayList<>(menu);
+        Collections.shuffle(shuffled, ThreadLocalRandom.current());
+        List<Long> items = shuffled.subList(0, Math.min(shuffled.size(), 1 + ThreadLocalRandom.current().nextInt(3)));
+        // Opening the order modal loads "frequently ordered with"
+        client.get("GET /api/recommendations/frequently-with/{foodItemId}",
+                "/api/recommendations/frequently-with/" + items.get(0) + "?limit=5", token);
+
+        ApiClient.Response placed = client.post("POST /api/orders", "/api/orders",
+                Map.of("userId", userId, "foodItemIds", items), token);
+        if (!placed.ok()) {
+            leave(10_000);
+            return;
+        }
+        sim.ordersPlaced.increment();
+        long orderId = placed.body.path("id").asLong();
+        pollOrders();
+        sim.after(() -> pay(orderId), Simulation.between(3_000, 10_000));
+    }
+
+    private void pay(long orderId) {
+        if (Simulation.chance(sim.settings.cancelRate)) {
+            if (client.put("PUT /api/orders/{orderId}/cancel", "/api/orders/" + orderId + "/cancel", token).ok()) {
+                sim.cancelled.increment();
+            }
+            pollOrders();
+            leave(10_000);
+            return;
+        }
+        String coupon = Simulation.chance(sim.settings.razorpayShare) ? payWithRazorpay(orderId) : payWithMock(orderId);
+        if (coupon == null) {
+            sim.paymentFailures.increment();
+            leave(10_000);
+            return;
+        }
+        coupons.put(orderId, coupon);
+        pollOrders();
+    }
+
+    private String payWithRazorpay(long orderId) {
+        ApiClient.Response checkout = client.post("POST /api/payments/razorpay/order", "/api/payments/razorpay/order",
+                Map.of("orderId", orderId), token);
+        if (!checkout.ok()) return null;
+        String gatewayOrderId = checkout.body.path("razorpayOrderId").asText();
+        String paymentId = sim.nextPaymentId();
+        ApiClient.Response verified = client.post("POST /api/payments/razorpay/verify", "/api/payments/razorpay/verify",
+                Map.of("orderId", orderId, "razorpayOrderId", gatewayOrderId, "razorpayPaymentId", paymentId,
+                        "razorpaySignature", sim.signCheckout(gatewayOrderId, paymentId)), token);
+        if (!verified.ok() || !"SUCCESS".equals(verified.body.path("paymentStatus").asText())) return null;
+        sim.paidRazorpay.increment();
+        return verified.body.path("couponCode").asText(null);
+    }
+
+    private String payWithMock(long orderId) {
+        ApiClient.Response paid = client.post("POST /api/payments", "/api/payments",
+                Map.of("orderId", orderId, "method", "MOCK"), token);
+        if (!paid.ok() || !"SUCCESS".equals(paid.body.path("paymentStatus").asText())) return null;
+        sim.paidMock.increment();
+        return paid.body.path("couponCode").asText(null);
+    }
+
+    // The counter scans the coupon; the page stays open a little longer afterwards
+    private void collect(long orderId) {
+        String code = coupons.remove(orderId);
+        String counter = sim.counterToken();
+        if (code == null || counter == null) return;
+        if (client.post("POST /api/coupons/{code}/redeem", "/api/coupons/" + code + "/redeem", null, counter).ok()) {
+            sim.collected.increment();
+        }
+        if (coupons.isEmpty()) leave(Simulation.between(10_000, 30_000));
+    }
+
+    private void leave(long afterMs) {
+        sim.after(() -> polls.forEach(p -> p.cancel(false)), afterMs);
+    }
+}